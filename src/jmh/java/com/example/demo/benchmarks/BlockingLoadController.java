@@ -0,0 +1,28 @@
+package com.example.demo.benchmarks;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Benchmark-only endpoint with a controllable amount of blocking
+ *
+ * Sleeps to stand in for a remote call or a slow MySQL round trip that the in-memory
+ * database does not have, then runs one real query through the connection pool.
+ */
+@RestController
+@Profile("benchmark")
+@AllArgsConstructor
+public class BlockingLoadController {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @GetMapping("/bench/blocking")
+    public Long blocking(@RequestParam(defaultValue = "20") long millis) throws InterruptedException {
+        Thread.sleep(millis);
+        return jdbcTemplate.queryForObject("select count(*) from users where active = true", Long.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.config.LoginThrottleProperties;
+import com.example.demo.security.LoginThrottle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LoginThrottle under 64 threads: one hot key (a credential-stuffing burst from a
+ * single IP against a single account) versus one key per thread
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class LoginThrottleBenchmark {
+
+    private LoginThrottle throttle;
+
+    @State(Scope.Thread)
+    public static class ThreadKey {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        String email;
+        String ip;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            int n = NEXT.incrementAndGet();
+            email = "user" + n + "@example.com";
+            ip = "10.0." + (n / 256) + "." + (n % 256);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LoginThrottleProperties properties = new LoginThrottleProperties();
+        // Never actually throttle, so every call does the full check
+        properties.setMaxFailuresPerEmail(Integer.MAX_VALUE);
+        properties.setMaxFailuresPerIp(Integer.MAX_VALUE);
+        throttle = new LoginThrottle(properties);
+    }
+
+    @Benchmark
+    public boolean checkHotKey() {
+        return throttle.isThrottled("victim@example.com", "203.0.113.7");
+    }
+
+    @Benchmark
+    public void recordFailureHotKey() {
+        throttle.recordFailure("victim@example.com", "203.0.113.7");
+    }
+
+    @Benchmark
+    public void recordFailureDistinctKeys(ThreadKey key) {
+        throttle.recordFailure(key.email, key.ip);
+    }
+
+    @Benchmark
+    public boolean checkAndRecordDistinctKeys(ThreadKey key) {
+        boolean throttled = throttle.isThrottled(key.email, key.ip);
+        throttle.recordFailure(key.email, key.ip);
+        return throttled;
+    }
+}
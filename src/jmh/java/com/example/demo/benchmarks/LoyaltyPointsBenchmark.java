@@ -0,0 +1,129 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.config.LoyaltyProperties;
+import com.example.demo.loyalty.LoyaltyAward;
+import com.example.demo.loyalty.LoyaltyLedger;
+import com.example.demo.loyalty.LoyaltyPointsAccumulator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loyalty awards per second under 16 threads: every thread awarding to one hot user
+ * versus one user per thread
+ *
+ * loadModifySave is what awarding looks like without the ledger (SELECT ... FOR UPDATE,
+ * then write the new value back), atomic is LoyaltyLedger's single UPDATE per award, and
+ * writeBehind is LoyaltyPointsAccumulator, whose flusher writes the sums every 100 ms
+ * against the same database while the benchmark runs.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class LoyaltyPointsBenchmark {
+
+    private static final String REASON = "benchmark";
+
+    private LoyaltyLedger ledger;
+    private LoyaltyPointsAccumulator accumulator;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private List<Long> userIds;
+    private long hotUserId;
+
+    @State(Scope.Thread)
+    public static class ThreadUser {
+        private static final AtomicInteger NEXT = new AtomicInteger();
+
+        long userId;
+
+        @Setup(Level.Trial)
+        public void setUp(LoyaltyPointsBenchmark benchmark) {
+            // Users 1..n; the hot user (index 0) is nobody's own user
+            userId = benchmark.userIds.get(1 + NEXT.getAndIncrement() % (benchmark.userIds.size() - 1));
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(SpringContextState spring) {
+        ledger = spring.getBean(LoyaltyLedger.class);
+        jdbcTemplate = spring.getBean(JdbcTemplate.class);
+        transactionTemplate = spring.getBean(TransactionTemplate.class);
+        userIds = jdbcTemplate.queryForList("select id from users order by id limit 65", Long.class);
+        hotUserId = userIds.get(0);
+        // Every user gets its profile row up front, so no benchmark measures its creation
+        userIds.forEach(userId -> ledger.apply(List.of(new LoyaltyAward(userId, REASON, 1))));
+
+        LoyaltyProperties properties = new LoyaltyProperties();
+        properties.setFlushInterval(Duration.ofMillis(100));
+        accumulator = new LoyaltyPointsAccumulator(ledger, properties, new SimpleMeterRegistry());
+        accumulator.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        accumulator.stop();
+    }
+
+    @Benchmark
+    public void loadModifySaveHotUser() {
+        loadModifySave(hotUserId);
+    }
+
+    @Benchmark
+    public void loadModifySaveDistinctUsers(ThreadUser user) {
+        loadModifySave(user.userId);
+    }
+
+    @Benchmark
+    public void atomicHotUser() {
+        ledger.apply(List.of(new LoyaltyAward(hotUserId, REASON, 1)));
+    }
+
+    @Benchmark
+    public void atomicDistinctUsers(ThreadUser user) {
+        ledger.apply(List.of(new LoyaltyAward(user.userId, REASON, 1)));
+    }
+
+    @Benchmark
+    public void writeBehindHotUser() {
+        accumulator.award(hotUserId, REASON, 1);
+    }
+
+    @Benchmark
+    public void writeBehindDistinctUsers(ThreadUser user) {
+        accumulator.award(user.userId, REASON, 1);
+    }
+
+    private void loadModifySave(long userId) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            long points = jdbcTemplate.queryForObject(
+                    "select loyalty_points from profiles where id = ? for update", Long.class, userId);
+            jdbcTemplate.update("update profiles set loyalty_points = ? where id = ?", points + 1, userId);
+            jdbcTemplate.update("insert into loyalty_points_ledger (user_id, points, reason, created_at) "
+                    + "values (?, ?, ?, ?)", userId, 1, REASON, System.currentTimeMillis());
+        });
+    }
+}
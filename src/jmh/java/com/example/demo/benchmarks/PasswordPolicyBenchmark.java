@@ -0,0 +1,79 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.config.PasswordPolicyProperties;
+import com.example.demo.security.PasswordPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordPolicy against the String.matches chain it replaced in UserService.changePassword
+ *
+ * The regex chain stops at the first failure; the policy evaluates every rule.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordPolicyBenchmark {
+
+    private static final String CURRENT = "OldPass123";
+
+    @Param({"NewPass123", "newpass123", "Short1", "Correct-Horse-Battery-Staple-42"})
+    private String candidate;
+
+    private PasswordPolicy policy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordPolicyProperties properties = new PasswordPolicyProperties();
+        properties.setDeniedPasswords(List.of("Password1", "Password123", "Passw0rd", "Welcome1", "Qwerty123"));
+        policy = new PasswordPolicy(properties);
+    }
+
+    @Benchmark
+    public List<String> policy() {
+        return policy.validate(candidate, CURRENT);
+    }
+
+    @Benchmark
+    public String regexChain() {
+        return regexChain(candidate, CURRENT);
+    }
+
+    /**
+     * The checks as they were before PasswordPolicy, returning the message instead of throwing
+     */
+    private static String regexChain(String newPassword, String oldPassword) {
+        if (oldPassword.equals(newPassword)) {
+            return "New password must be different from current password";
+        }
+        if (newPassword == null || newPassword.length() < 8) {
+            return "Password must be at least 8 characters long";
+        }
+        if (!newPassword.matches(".*[A-Z].*")) {
+            return "Password must contain at least one uppercase letter";
+        }
+        if (!newPassword.matches(".*[a-z].*")) {
+            return "Password must contain at least one lowercase letter";
+        }
+        if (!newPassword.matches(".*\\d.*")) {
+            return "Password must contain at least one digit";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.config.PasswordHashingProperties;
+import com.example.demo.exceptions.ServiceOverloadedException;
+import com.example.demo.security.PasswordService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password verification under concurrent load, through the bounded hashing pool
+ * and directly on the calling threads
+ *
+ * Run with more threads than cores to see the pool cap CPU use: surplus calls
+ * wait in the queue or are rejected (counted as "rejected") instead of all
+ * hashing at once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class PasswordServiceBenchmark {
+
+    private static final String PASSWORD = "Bench-Login1";
+
+    @Param({"10"})
+    private int strength;
+
+    private PasswordService passwordService;
+    private BCryptPasswordEncoder directEncoder;
+    private String storedHash;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long rejected;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setBcryptStrength(strength);
+        passwordService = new PasswordService(properties);
+        directEncoder = new BCryptPasswordEncoder(strength);
+        storedHash = passwordService.hash(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordService.shutdown();
+    }
+
+    @Benchmark
+    public boolean pooledMatches(Outcomes outcomes) {
+        try {
+            return passwordService.matches(PASSWORD, storedHash);
+        } catch (ServiceOverloadedException e) {
+            outcomes.rejected++;
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean directMatches() {
+        // Strip the "{bcrypt}" prefix the delegating encoder adds
+        return directEncoder.matches(PASSWORD, storedHash.substring(storedHash.indexOf('}') + 1));
+    }
+}
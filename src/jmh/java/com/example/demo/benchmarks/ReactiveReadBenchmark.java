@@ -0,0 +1,58 @@
+package com.example.demo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /users/{id} (blocking JPA) against GET /reactive/users/{id} (R2DBC, async response)
+ * over real HTTP with 256 concurrent clients and random ids across the seeded table
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(256)
+@State(Scope.Benchmark)
+public class ReactiveReadBenchmark {
+
+    @Param({"/users/", "/reactive/users/"})
+    private String endpoint;
+
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp(SpringContextState spring) {
+        int port = ((WebServerApplicationContext) spring.getContext()).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + endpoint;
+        client = HttpClient.newHttpClient();
+    }
+
+    @Benchmark
+    public int getUser() throws IOException, InterruptedException {
+        long id = 1 + ThreadLocalRandom.current().nextInt(SpringContextState.SEED_USERS);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
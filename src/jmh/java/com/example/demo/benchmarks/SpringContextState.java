@@ -0,0 +1,71 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.Demo2Application;
+import com.example.demo.entities.User;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.PasswordService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The full application, started once per trial on the "benchmark" profile (in-memory H2)
+ *
+ * Besides the Flyway sample data it seeds SEED_USERS users so list and page
+ * benchmarks read a realistically sized table. Seeded users share one password hash.
+ */
+@State(Scope.Benchmark)
+public class SpringContextState {
+
+    public static final int SEED_USERS = 10_000;
+    public static final String SEED_PASSWORD = "Seed-Pass1";
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(Demo2Application.class)
+                .profiles("benchmark")
+                .run();
+        seedUsers();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    private void seedUsers() {
+        UserRepository userRepository = getBean(UserRepository.class);
+        String hash = getBean(PasswordService.class).hash(SEED_PASSWORD);
+        List<User> chunk = new ArrayList<>(1000);
+        for (int i = 0; i < SEED_USERS; i++) {
+            chunk.add(User.builder()
+                    .name("Seed User " + i)
+                    .email("seed" + i + "@example.com")
+                    .password(hash)
+                    .active(i % 10 != 0)
+                    .build());
+            if (chunk.size() == 1000) {
+                userRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        userRepository.saveAll(chunk);
+    }
+}
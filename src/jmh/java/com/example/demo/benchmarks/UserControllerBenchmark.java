@@ -0,0 +1,56 @@
+package com.example.demo.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * REST read endpoints through the full MVC stack (MockMvc, no network)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserControllerBenchmark {
+
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void setUp(SpringContextState spring) {
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) spring.getContext()).build();
+    }
+
+    @Benchmark
+    public String getUser() throws Exception {
+        return mockMvc.perform(get("/users/{id}", 1L)).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String getFirstPage() throws Exception {
+        return mockMvc.perform(get("/users").param("limit", "25").param("sort", "name"))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String getPageAfterCursor() throws Exception {
+        return mockMvc.perform(get("/users").param("limit", "25").param("sort", "id").param("after", "5000"))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
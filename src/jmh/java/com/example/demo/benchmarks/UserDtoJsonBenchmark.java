@@ -0,0 +1,65 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dtos.UserDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of UserDto with the ObjectMapper settings Spring Boot applies
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDtoJsonBenchmark {
+
+    @Param({"1", "25", "1000"})
+    private int size;
+
+    private List<UserDto> users;
+    private ObjectWriter listWriter;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, UserDto.class));
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(new UserDto((long) i, "User " + i, "user" + i + "@example.com", i % 10 != 0));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(users);
+    }
+
+    /**
+     * Untyped writeValueAsBytes, as a controller returning List<UserDto> ends up doing
+     */
+    @Benchmark
+    public byte[] writeListUntyped() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
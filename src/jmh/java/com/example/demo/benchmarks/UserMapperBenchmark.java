@@ -0,0 +1,68 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dtos.UserDto;
+import com.example.demo.entities.User;
+import com.example.demo.mappers.UserMapper;
+import com.example.demo.mappers.UserMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserMapper.toDto over lists of detached entities (no Spring context, no database)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMapperBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private final UserMapper userMapper = new UserMapperImpl();
+    private List<User> users;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            users.add(User.builder()
+                    .id((long) i)
+                    .name("User " + i)
+                    .email("user" + i + "@example.com")
+                    .password("{bcrypt}$2a$10$abcdefghijklmnopqrstuv")
+                    .active(i % 10 != 0)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<UserDto> toDtoLoop() {
+        List<UserDto> dtos = new ArrayList<>(users.size());
+        for (User user : users) {
+            dtos.add(userMapper.toDto(user));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<UserDto> toDtoStream() {
+        return users.stream().map(userMapper::toDto).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.config.UserSearchProperties;
+import com.example.demo.dtos.UserDto;
+import com.example.demo.services.UserSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserSearchIndex over a million synthetic users: single letters (the widest prefix match),
+ * selective prefixes, two-word queries and typos that need the fuzzy pass
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UserSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "john", "jane", "alice", "bob", "carol", "dave", "eve", "frank", "grace",
+            "heidi", "ivan", "judy", "mallory", "oscar", "peggy", "trent", "victor", "walter"};
+
+    @Param({"1000000"})
+    private int users;
+
+    @Param({"j", "johna", "alicez smith", "jhona", "grcae"})
+    private String query;
+
+    private UserSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new UserSearchIndex(new UserSearchProperties(), null);
+        Random random = new Random(42);
+        for (long id = 1; id <= users; id++) {
+            index.put(randomUser(random, id));
+        }
+    }
+
+    @Benchmark
+    public List<UserDto> search() {
+        return index.search(query, 10);
+    }
+
+    private static UserDto randomUser(Random random, long id) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + (char) ('a' + random.nextInt(26));
+        String last = "smith" + Integer.toString(random.nextInt(100_000), 36);
+        return new UserDto(id, first + " " + last, first + "." + last + id + "@example.com", true);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dtos.UserDto;
+import com.example.demo.entities.User;
+import com.example.demo.exceptions.UserNotFoundException;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.PasswordService;
+import com.example.demo.services.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService login and password change against the in-memory database
+ *
+ * Both are dominated by BCrypt at the configured strength; the numbers show what
+ * the database and mapping add on top, and catch regressions in either.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    private static final String EMAIL = "bench.login@example.com";
+    private static final String PASSWORD = "Bench-Login1";
+    private static final String[] PASSWORDS = {"Alpha-Bench42", "Zulu-Mark7x"};
+
+    private UserService userService;
+    private Long passwordUserId;
+    private int passwordIndex;
+
+    @Setup(Level.Trial)
+    public void setUp(SpringContextState spring) {
+        userService = spring.getBean(UserService.class);
+        UserRepository userRepository = spring.getBean(UserRepository.class);
+        PasswordService passwordService = spring.getBean(PasswordService.class);
+
+        userRepository.save(User.builder()
+                .name("Bench Login")
+                .email(EMAIL)
+                .password(passwordService.hash(PASSWORD))
+                .build());
+        passwordUserId = userRepository.save(User.builder()
+                .name("Bench Password")
+                .email("bench.password@example.com")
+                .password(passwordService.hash(PASSWORDS[0]))
+                .build()).getId();
+    }
+
+    @Benchmark
+    public UserDto login() {
+        return userService.login(EMAIL, PASSWORD);
+    }
+
+    /**
+     * Unknown emails fail before any hashing; this is the floor of the login path
+     */
+    @Benchmark
+    public Object loginUnknownEmail() {
+        try {
+            return userService.login("nobody@example.com", PASSWORD);
+        } catch (UserNotFoundException e) {
+            return e;
+        }
+    }
+
+    /**
+     * Alternates between two passwords so every call is a valid change
+     */
+    @Benchmark
+    public UserDto changePassword() {
+        String current = PASSWORDS[passwordIndex];
+        passwordIndex ^= 1;
+        return userService.changePassword(passwordUserId, current, PASSWORDS[passwordIndex]);
+    }
+}
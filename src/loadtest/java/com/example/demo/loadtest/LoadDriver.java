@@ -0,0 +1,313 @@
+package com.example.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+/**
+ * Closed-loop HTTP load driver for a running application (normally the loadtest profile)
+ *
+ * Before the run, the ids of the generated users are read from the NDJSON stream of
+ * GET /users: they start after whatever rows existed when the generator ran, so they
+ * can't be derived from --users.
+ *
+ * Each worker owns an HttpClient with its own cookie jar, logs in once so it can
+ * reach /ui/users, then loops: pick a scenario by weight, send the request, record
+ * the latency. After the warm-up, latencies are kept per scenario and reported as
+ * throughput and p50/p90/p99/max when the run ends.
+ *
+ * Options (all optional):
+ *   --base-url http://localhost:8080   --concurrency 32   --warmup 10s   --duration 60s
+ *   --users 1000000 (at most this many generated users to pick from)   --password LoadTest-Pass1
+ *   --mix page=20,user=50,login=10,ui=20
+ *
+ * Run with: ./mvnw -Ploadtest test-compile exec:java -Dexec.args="--duration 120s --concurrency 64"
+ */
+public class LoadDriver {
+
+    private enum Scenario {
+        PAGE("GET /users?limit=25"),
+        USER("GET /users/{id}"),
+        LOGIN("POST /login"),
+        UI("GET /ui/users");
+
+        private final String label;
+
+        Scenario(String label) {
+            this.label = label;
+        }
+    }
+
+    private final URI baseUrl;
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int users;
+    private final String password;
+    private final Scenario[] weighted;
+    private long[] userIds;
+
+    private LoadDriver(Map<String, String> options) {
+        this.baseUrl = URI.create(options.getOrDefault("base-url", "http://localhost:8080"));
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        this.warmup = parseDuration(options.getOrDefault("warmup", "10s"));
+        this.duration = parseDuration(options.getOrDefault("duration", "60s"));
+        this.users = Integer.parseInt(options.getOrDefault("users", "1000000"));
+        this.password = options.getOrDefault("password", "LoadTest-Pass1");
+        this.weighted = parseMix(options.getOrDefault("mix", "page=20,user=50,login=10,ui=20"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new LoadDriver(options).run();
+    }
+
+    private void run() throws Exception {
+        userIds = fetchUserIds();
+        if (userIds.length == 0) {
+            throw new IllegalStateException("No generated users at " + baseUrl + "; start it with the loadtest profile");
+        }
+        System.out.printf("Picking from %d generated users%n", userIds.length);
+        System.out.printf("Driving %s with %d workers: %s warm-up, %s measured%n",
+                baseUrl, concurrency, warmup, duration);
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<Recorder[]>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(pool.submit(() -> work(measureFrom, stopAt)));
+            }
+            Recorder[] totals = newRecorders();
+            for (Future<Recorder[]> worker : workers) {
+                Recorder[] recorded = worker.get();
+                for (int s = 0; s < totals.length; s++) {
+                    totals[s].addAll(recorded[s]);
+                }
+            }
+            report(totals);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Recorder[] work(long measureFrom, long stopAt) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Recorder[] recorders = newRecorders();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // A session for the UI pages
+        login(client, random);
+
+        long now;
+        while ((now = System.nanoTime()) < stopAt) {
+            Scenario scenario = weighted[random.nextInt(weighted.length)];
+            boolean ok;
+            try {
+                ok = switch (scenario) {
+                    case PAGE -> get(client, "/users?limit=25&sort=id&after=" + randomUserId(random));
+                    case USER -> get(client, "/users/" + randomUserId(random));
+                    case LOGIN -> login(client, random);
+                    case UI -> get(client, "/ui/users?sort=name");
+                };
+            } catch (IOException e) {
+                ok = false;
+            }
+            long elapsed = System.nanoTime() - now;
+            if (now >= measureFrom) {
+                recorders[scenario.ordinal()].record(elapsed, ok);
+            }
+        }
+        return recorders;
+    }
+
+    /**
+     * Ids of up to --users generated users, in id order, from one streamed GET /users
+     */
+    private long[] fetchUserIds() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/users?sort=id"))
+                .header("Accept", "application/x-ndjson")
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("GET /users returned " + response.statusCode());
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        long[] ids = new long[1024];
+        int count = 0;
+        try (Stream<String> lines = response.body()) {
+            for (var it = lines.iterator(); it.hasNext() && count < users; ) {
+                JsonNode user = objectMapper.readTree(it.next());
+                if (!user.path("email").asText().endsWith(LoadTestDataGenerator.EMAIL_DOMAIN)) {
+                    continue;
+                }
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = user.get("id").asLong();
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private long randomUserId(ThreadLocalRandom random) {
+        return userIds[random.nextInt(userIds.length)];
+    }
+
+    private boolean get(HttpClient client, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() == 200;
+    }
+
+    /**
+     * Log in as a random generated user; success is a redirect to the user list
+     */
+    private boolean login(HttpClient client, ThreadLocalRandom random) throws IOException, InterruptedException {
+        String form = "email=" + URLEncoder.encode(LoadTestDataGenerator.email(1 + random.nextInt(userIds.length)), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        return response.statusCode() == 302
+                && response.headers().firstValue("Location").orElse("").endsWith("/ui/users");
+    }
+
+    private void report(Recorder[] totals) {
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%n%-22s %9s %7s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        long allRequests = 0;
+        for (Scenario scenario : Scenario.values()) {
+            Recorder recorder = totals[scenario.ordinal()];
+            if (recorder.count == 0) {
+                continue;
+            }
+            allRequests += recorder.count;
+            long[] sorted = recorder.sorted();
+            System.out.printf(Locale.ROOT, "%-22s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    scenario.label, recorder.count, recorder.errors, recorder.count / seconds,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)),
+                    millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+        }
+        System.out.printf(Locale.ROOT, "%-22s %9d %7s %9.1f%n", "total", allRequests, "", allRequests / seconds);
+    }
+
+    private static Recorder[] newRecorders() {
+        Recorder[] recorders = new Recorder[Scenario.values().length];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder();
+        }
+        return recorders;
+    }
+
+    /**
+     * Latencies of one scenario in nanoseconds, in a growable primitive array
+     */
+    private static final class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static Scenario[] parseMix(String mix) {
+        List<Scenario> weighted = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            Scenario scenario = Scenario.valueOf(pair[0].trim().toUpperCase(Locale.ROOT));
+            int weight = Integer.parseInt(pair[1].trim());
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Empty scenario mix");
+        }
+        return weighted.toArray(new Scenario[0]);
+    }
+
+    private static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(v.substring(0, v.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(v));
+    }
+}
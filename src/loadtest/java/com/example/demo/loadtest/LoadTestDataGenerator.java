@@ -0,0 +1,133 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.security.PasswordService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the load-test database with synthetic users, addresses and profiles
+ *
+ * Rows are written with plain JDBC batches, one transaction per batch, with ids taken
+ * above the Flyway sample data. The id_generators table is moved past the generated
+ * ids afterwards, so users created through the application don't collide with them.
+ * All users share one password hash: hashing millions of passwords would take hours.
+ */
+@Component
+@Profile("loadtest")
+@AllArgsConstructor
+@Slf4j
+public class LoadTestDataGenerator implements ApplicationRunner {
+
+    /** Domain of every generated email, so drivers can tell generated users apart */
+    static final String EMAIL_DOMAIN = "@loadtest.example";
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"};
+    private static final String[][] CITIES = {
+            {"New York", "NY", "100"}, {"Los Angeles", "CA", "900"}, {"Chicago", "IL", "606"},
+            {"Houston", "TX", "770"}, {"Phoenix", "AZ", "850"}, {"Philadelphia", "PA", "191"},
+            {"San Antonio", "TX", "782"}, {"San Diego", "CA", "921"}, {"Dallas", "TX", "752"}, {"Seattle", "WA", "981"}};
+    private static final String[] STREETS = {"Main St", "Oak Ave", "Pine Rd", "Elm St", "Maple Dr", "Cedar Ln"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordService passwordService;
+    private final LoadTestProperties properties;
+
+    /**
+     * Email of the n-th generated user (1-based); the load driver logs in with these
+     */
+    public static String email(long n) {
+        return "user" + n + EMAIL_DOMAIN;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(properties.getRandomSeed());
+        String passwordHash = passwordService.hash(properties.getPassword());
+        long firstUserId = nextId("users");
+        long nextAddressId = nextId("addresses");
+        int batchSize = properties.getBatchSize();
+
+        List<Object[]> users = new ArrayList<>(batchSize);
+        List<Object[]> addresses = new ArrayList<>(batchSize * 2);
+        List<Object[]> profiles = new ArrayList<>(batchSize);
+        for (int n = 1; n <= properties.getUsers(); n++) {
+            long userId = firstUserId + n - 1;
+            users.add(new Object[]{userId,
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    email(n), passwordHash, random.nextInt(10) != 0});
+
+            int addressCount = random.nextInt(properties.getMaxAddressesPerUser() + 1);
+            for (int a = 0; a < addressCount; a++) {
+                String[] city = CITIES[random.nextInt(CITIES.length)];
+                addresses.add(new Object[]{nextAddressId++,
+                        (1 + random.nextInt(9999)) + " " + STREETS[random.nextInt(STREETS.length)],
+                        city[0], city[1], city[2] + String.format("%02d", random.nextInt(100)), userId});
+            }
+            if (random.nextDouble() < properties.getProfileRatio()) {
+                profiles.add(new Object[]{userId, "Generated profile " + n,
+                        "555-" + String.format("%07d", random.nextInt(10_000_000)),
+                        Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(20_000))),
+                        random.nextInt(5000)});
+            }
+
+            if (users.size() == batchSize) {
+                writeBatch(users, addresses, profiles);
+                if (n % 100_000 == 0) {
+                    log.info("Generated {} of {} users", n, properties.getUsers());
+                }
+            }
+        }
+        writeBatch(users, addresses, profiles);
+
+        long lastUserId = firstUserId + properties.getUsers() - 1;
+        moveGenerator("users", lastUserId);
+        moveGenerator("addresses", nextAddressId - 1);
+        log.info("Load-test data ready: {} users in {} s", properties.getUsers(), (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private void writeBatch(List<Object[]> users, List<Object[]> addresses, List<Object[]> profiles) {
+        if (users.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(tx -> {
+            jdbcTemplate.batchUpdate("insert into users (id, name, email, password, active) values (?, ?, ?, ?, ?)", users);
+            jdbcTemplate.batchUpdate("insert into addresses (id, street, city, state, zip, user_id) values (?, ?, ?, ?, ?, ?)", addresses);
+            jdbcTemplate.batchUpdate("insert into profiles (id, bio, phone_number, date_of_birth, loyalty_points) values (?, ?, ?, ?, ?)", profiles);
+        });
+        users.clear();
+        addresses.clear();
+        profiles.clear();
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        return (max == null ? 0 : max) + 1;
+    }
+
+    /**
+     * Start the pooled generator above the last generated id (plus one block, as V11 does)
+     */
+    private void moveGenerator(String name, long lastId) {
+        jdbcTemplate.update("update id_generators set next_val = ? where gen_name = ? and next_val <= ?",
+                lastId + 51, name, lastId + 51);
+    }
+}
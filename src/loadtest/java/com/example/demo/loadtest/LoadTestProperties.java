@@ -0,0 +1,27 @@
+package com.example.demo.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Synthetic data for the load-test profile (prefix "app.loadtest")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.loadtest")
+public class LoadTestProperties {
+
+    /** Users generated at startup, emails user1@loadtest.example ... userN@loadtest.example */
+    private int users = 1_000_000;
+    /** Each user gets between 0 and this many addresses */
+    private int maxAddressesPerUser = 3;
+    /** Share of users that get a profile row */
+    private double profileRatio = 0.5;
+    /** Rows per JDBC batch and per transaction */
+    private int batchSize = 5000;
+    /** Password of every generated user (hashed once and shared) */
+    private String password = "LoadTest-Pass1";
+    /** Same seed, same data */
+    private long randomSeed = 42;
+}
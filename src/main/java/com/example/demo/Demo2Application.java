@@ -8,9 +8,11 @@ import com.example.demo.repositories.UserRepository;
 import com.example.demo.services.UserService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.ApplicationContext;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class Demo2Application {
 
     public static void main(String[] args) {
@@ -0,0 +1,16 @@
+package com.example.demo.audit;
+
+public enum AuditAction {
+    LOGIN_SUCCEEDED,
+    /** detail: unknown_email, inactive or bad_password */
+    LOGIN_FAILED,
+    LOGIN_THROTTLED,
+    PASSWORD_CHANGED,
+    /** detail: not_found, bad_current_password or policy_violation */
+    PASSWORD_CHANGE_FAILED,
+    USER_ACTIVATED,
+    USER_DEACTIVATED,
+    /** Bulk change; detail names the ids or the email domain and how many users changed */
+    USERS_ACTIVATED,
+    USERS_DEACTIVATED
+}
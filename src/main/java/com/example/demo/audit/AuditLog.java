@@ -0,0 +1,184 @@
+package com.example.demo.audit;
+
+import com.example.demo.config.AuditProperties;
+import com.example.demo.config.AuditProperties.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit trail
+ *
+ * record() only builds the record and places it in a bounded lock-free ring buffer, so
+ * logins and password changes never wait for an audit write. One writer thread drains
+ * the buffer in batches to the AuditSink: as soon as a full batch is waiting, otherwise
+ * every flush interval. A failed write is retried with the same batch while new records
+ * keep buffering.
+ *
+ * When the buffer is full, records are dropped (DROP, the default) or the caller waits
+ * up to the block timeout for space (BLOCK); either way drops are counted. Records still
+ * buffered at shutdown get one last write.
+ */
+@Component
+@Slf4j
+public class AuditLog {
+
+    private final AuditSink sink;
+    private final AuditRingBuffer buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long retryDelayNanos;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failures;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public AuditLog(AuditSink sink, AuditProperties properties, MeterRegistry registry) {
+        this.sink = sink;
+        this.buffer = new AuditRingBuffer(properties.getBufferCapacity());
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.blockTimeoutNanos = properties.getBlockTimeout().toNanos();
+        this.batchSize = Math.max(1, Math.min(properties.getBatchSize(), buffer.capacity()));
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.retryDelayNanos = properties.getRetryDelay().toNanos();
+        this.written = Counter.builder("audit.records.written")
+                .description("Audit records written to the sink")
+                .register(registry);
+        this.dropped = Counter.builder("audit.records.dropped")
+                .description("Audit records discarded because the buffer was full")
+                .register(registry);
+        this.failures = Counter.builder("audit.write.failures")
+                .description("Failed audit batch writes, retried")
+                .register(registry);
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit records waiting to be written")
+                .register(registry);
+        Gauge.builder("audit.lag", lagMillis, AtomicLong::get)
+                .description("Age in ms of the oldest record in the last batch when it was written")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "audit-log-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public void record(AuditAction action, Long userId, String email, String clientIp, String detail) {
+        AuditRecord record = new AuditRecord(System.currentTimeMillis(), action, userId, email, clientIp, detail);
+        long position = buffer.offer(record);
+        if (position >= 0) {
+            if ((position + 1) % batchSize == 0) {
+                // A full batch is waiting: no need to wait for the flush interval
+                wakeWriter();
+            }
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK && offerWithin(record, blockTimeoutNanos)) {
+            return;
+        }
+        dropped.increment();
+    }
+
+    /**
+     * Records waiting in the buffer, not counting a batch being written
+     */
+    public int getPending() {
+        return buffer.size();
+    }
+
+    private boolean offerWithin(AuditRecord record, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        do {
+            wakeWriter();
+            LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(50));
+            if (buffer.offer(record) >= 0) {
+                // The buffer was full, so there is a backlog to write
+                wakeWriter();
+                return true;
+            }
+        } while (System.nanoTime() - deadline < 0);
+        return false;
+    }
+
+    private void wakeWriter() {
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            writeWithRetry(batch);
+            batch.clear();
+        }
+        // Shutting down: one attempt for whatever is left
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            if (!write(batch)) {
+                dropped.increment(batch.size() + buffer.size());
+                break;
+            }
+            batch.clear();
+        }
+    }
+
+    private void writeWithRetry(List<AuditRecord> batch) {
+        while (!write(batch)) {
+            if (!running) {
+                dropped.increment(batch.size());
+                return;
+            }
+            LockSupport.parkNanos(this, retryDelayNanos);
+        }
+    }
+
+    private boolean write(List<AuditRecord> batch) {
+        try {
+            sink.write(batch);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Writing {} audit records failed, {} buffered: {}", batch.size(), buffer.size(), e.toString());
+            return false;
+        }
+        written.increment(batch.size());
+        lagMillis.set(System.currentTimeMillis() - batch.get(0).occurredAt());
+        return true;
+    }
+}
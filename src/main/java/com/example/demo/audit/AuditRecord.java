@@ -0,0 +1,14 @@
+package com.example.demo.audit;
+
+/**
+ * One audited action
+ *
+ * @param occurredAt epoch millis when the action was recorded
+ * @param userId user acted upon, null if unknown (login with an unknown email, bulk changes)
+ * @param email email given at login, null otherwise
+ * @param clientIp remote address of the caller, null if unknown
+ * @param detail outcome or scope of the action, null if there is nothing to add
+ */
+public record AuditRecord(long occurredAt, AuditAction action, Long userId, String email, String clientIp,
+                          String detail) {
+}
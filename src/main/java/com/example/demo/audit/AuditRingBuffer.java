@@ -0,0 +1,94 @@
+package com.example.demo.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of audit records: any number of producers, one consumer
+ *
+ * Each slot carries a sequence number telling whose turn it is (bounded MPMC queue
+ * after D. Vyukov, with the consumer side simplified to a single thread). A producer
+ * claims position p with one CAS on the tail once slot p's sequence equals p, stores
+ * the record and publishes it by setting the sequence to p + 1. The consumer takes
+ * the record when it sees p + 1 and hands the slot to the next lap by setting
+ * p + capacity. A full buffer makes offer fail at once instead of waiting.
+ */
+class AuditRingBuffer {
+
+    private final AuditRecord[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Written by the consumer only; volatile so size() can be read anywhere
+    private volatile long head;
+
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.slots = new AuditRecord[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return the position the record took, or -1 if the buffer is full
+     */
+    long offer(AuditRecord record) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long turn = sequences.get(index) - position;
+            if (turn == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = record;
+                    sequences.set(index, position + 1);
+                    return position;
+                }
+                position = tail.get();
+            } else if (turn < 0) {
+                // Slot still holds the record from the previous lap
+                return -1;
+            } else {
+                // Another producer took this position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Move up to max published records to out, oldest first; consumer thread only
+     *
+     * @return number of records moved
+     */
+    int drainTo(List<AuditRecord> out, int max) {
+        long position = head;
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            out.add(slots[index]);
+            slots[index] = null;
+            sequences.set(index, position + slots.length);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Records claimed and not yet drained (approximate while producers are running)
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+}
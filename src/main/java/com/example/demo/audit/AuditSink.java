@@ -0,0 +1,14 @@
+package com.example.demo.audit;
+
+import java.util.List;
+
+/**
+ * Durable destination of audit records
+ *
+ * Only the AuditLog writer thread calls write, so implementations need no locking.
+ * Throwing makes AuditLog retry the same batch.
+ */
+public interface AuditSink {
+
+    void write(List<AuditRecord> records);
+}
@@ -0,0 +1,115 @@
+package com.example.demo.audit;
+
+import com.example.demo.config.AuditProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Audit records as JSON lines in a local file (app.audit.sink=file)
+ *
+ * Each batch is appended and flushed in one go. Once the file has reached the maximum
+ * size, the next batch first rolls it over: it becomes audit.log.1, older files move up
+ * by one and the oldest beyond the history limit is deleted.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.audit", name = "sink", havingValue = "file")
+public class FileAuditSink implements AuditSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final long maxSize;
+    private final int maxHistory;
+
+    private Writer writer;
+    private long size;
+
+    public FileAuditSink(ObjectMapper objectMapper, AuditProperties properties) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(properties.getFilePath());
+        this.maxSize = properties.getFileMaxSize().toBytes();
+        this.maxHistory = properties.getFileMaxHistory();
+    }
+
+    @Override
+    public void write(List<AuditRecord> records) {
+        StringBuilder lines = new StringBuilder(records.size() * 160);
+        try {
+            for (AuditRecord record : records) {
+                lines.append(objectMapper.writeValueAsString(record)).append('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Audit record not serializable", e);
+        }
+        String text = lines.toString();
+        try {
+            if (writer == null) {
+                open();
+            }
+            if (size >= maxSize) {
+                roll();
+                open();
+            }
+            writer.write(text);
+            writer.flush();
+            size += text.getBytes(StandardCharsets.UTF_8).length;
+        } catch (IOException e) {
+            // Reopen on the next attempt; the retried batch may be written twice
+            close();
+            throw new UncheckedIOException("Writing audit file " + path + " failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException ignored) {
+                // Nothing left to do with it
+            }
+            writer = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        close();
+        Files.deleteIfExists(rolled(maxHistory));
+        for (int i = maxHistory - 1; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxHistory > 0) {
+            Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(path);
+        }
+    }
+
+    private Path rolled(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Audit trail of logins, password changes and status changes (prefix "app.audit")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    public enum Sink {
+        /** Append-only audit_log table in the application database */
+        JDBC,
+        /** JSON lines in a local file, rolled over by size */
+        FILE
+    }
+
+    public enum OverflowPolicy {
+        /** Discard the record and count it; callers never wait */
+        DROP,
+        /** Wait up to block-timeout for space, then discard */
+        BLOCK
+    }
+
+    private Sink sink = Sink.JDBC;
+    /** Records buffered in memory awaiting a write; rounded up to a power of two */
+    private int bufferCapacity = 8192;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    /** BLOCK: longest a caller waits for space */
+    private Duration blockTimeout = Duration.ofMillis(100);
+    /** Records written at a time */
+    private int batchSize = 256;
+    /** Write what has accumulated at least this often */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /** Wait after a failed write before trying the same batch again */
+    private Duration retryDelay = Duration.ofSeconds(1);
+    /** FILE: current file; rolled files get .1, .2, ... appended */
+    private String filePath = "logs/audit.log";
+    /** FILE: roll over once the current file reaches this size */
+    private DataSize fileMaxSize = DataSize.ofMegabytes(10);
+    /** FILE: rolled files kept besides the current one */
+    private int fileMaxHistory = 5;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for POST /users/bulk (prefix "app.users.bulk")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.users.bulk")
+public class BulkImportProperties {
+
+    /** Rows persisted per transaction, ideally a multiple of hibernate.jdbc.batch_size */
+    private int chunkSize = 500;
+    /** Row errors listed in the response; further errors are only counted */
+    private int maxReportedErrors = 1000;
+}
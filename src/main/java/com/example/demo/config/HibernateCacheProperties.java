@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache regions (prefix "app.cache")
+ * Region names match the region attribute of @Cache on the entities
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class HibernateCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        /** Maximum number of entries, unbounded when not set */
+        private Long maximumSize;
+        /** Time to live after write, no expiry when not set */
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Login brute-force throttling (prefix "app.security.login-throttle")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.security.login-throttle")
+public class LoginThrottleProperties {
+
+    private boolean enabled = true;
+    /** Length of the sliding window failures are counted over */
+    private Duration window = Duration.ofMinutes(5);
+    /** Failed logins per email within the window before further attempts are rejected */
+    private int maxFailuresPerEmail = 5;
+    /** Failed logins per client IP within the window before further attempts are rejected */
+    private int maxFailuresPerIp = 50;
+    /** Upper bound on tracked emails and on tracked IPs; least recently used keys are dropped */
+    private long maximumKeys = 100_000;
+}
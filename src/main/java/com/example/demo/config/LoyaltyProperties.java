@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Loyalty points awards (prefix "app.loyalty")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.loyalty")
+public class LoyaltyProperties {
+
+    /**
+     * Add awards up in memory and write them every flush interval instead of one
+     * transaction per award. Awards still in memory are lost if the process dies.
+     */
+    private boolean writeBehind = false;
+    /** Write-behind: write what has accumulated this often; failed writes are retried at the next flush */
+    private Duration flushInterval = Duration.ofSeconds(1);
+    /** Write-behind: sums (one per user and reason) written per transaction */
+    private int batchSize = 500;
+    /** Largest single award accepted by the API */
+    private int maxPointsPerAward = 100_000;
+}
@@ -0,0 +1,73 @@
+package com.example.demo.config;
+
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.PasswordService;
+import com.example.demo.services.UserSearchIndex;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Application meters on top of what Spring Boot binds itself
+ * (Hikari pool, Hibernate statistics, Spring Data repository invocations, HTTP requests)
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Enables @Timed on Spring beans
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /**
+     * Saturation of the password hashing pool
+     */
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordService passwordService) {
+        return registry -> {
+            Gauge.builder("password.hashing.queue", passwordService, PasswordService::getQueueDepth)
+                    .description("Hash requests waiting for a thread")
+                    .register(registry);
+            Gauge.builder("password.hashing.active", passwordService, PasswordService::getActiveCount)
+                    .description("Hashing threads busy")
+                    .register(registry);
+            Gauge.builder("password.hashing.threads", passwordService, PasswordService::getPoolSize)
+                    .description("Hashing pool size")
+                    .register(registry);
+            FunctionCounter.builder("password.hashing.rejected", passwordService, PasswordService::getRejectedCount)
+                    .description("Hash requests refused because the pool was saturated")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder loginThrottleMetrics(LoginThrottle loginThrottle) {
+        return registry -> {
+            FunctionCounter.builder("login.throttle.checks", loginThrottle, LoginThrottle::getAdmittedCount)
+                    .description("Login attempts checked against the throttle")
+                    .tag("result", "admitted")
+                    .register(registry);
+            FunctionCounter.builder("login.throttle.checks", loginThrottle, LoginThrottle::getRejectedCount)
+                    .description("Login attempts checked against the throttle")
+                    .tag("result", "rejected")
+                    .register(registry);
+            Gauge.builder("login.throttle.keys", loginThrottle, LoginThrottle::getTrackedKeyCount)
+                    .description("Emails and IPs with recent failures being tracked")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder userSearchMetrics(UserSearchIndex userSearchIndex) {
+        return registry -> Gauge.builder("users.search.documents", userSearchIndex, UserSearchIndex::size)
+                .description("Users in the in-memory search index")
+                .register(registry);
+    }
+}
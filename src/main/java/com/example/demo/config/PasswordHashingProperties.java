@@ -0,0 +1,27 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Password hashing settings (prefix "app.security.password")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.security.password")
+public class PasswordHashingProperties {
+
+    /** Encoder id used for new hashes: "bcrypt" or "pbkdf2" */
+    private String encoder = "bcrypt";
+    /** BCrypt log2 rounds; raising it makes stored hashes with a lower cost get rehashed on login */
+    private int bcryptStrength = 10;
+    /** Hashing threads, 0 means one per available processor */
+    private int poolSize = 0;
+    /** Hash requests allowed to wait for a thread before new ones are rejected */
+    private int queueCapacity = 64;
+    /** Longest a caller waits for its hash before giving up */
+    private Duration timeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,32 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Password strength rules (prefix "app.security.password-policy")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.security.password-policy")
+public class PasswordPolicyProperties {
+
+    private int minLength = 8;
+    private int maxLength = 128;
+    private boolean requireUppercase = true;
+    private boolean requireLowercase = true;
+    private boolean requireDigit = true;
+    /** Any character that is not a letter, digit or whitespace */
+    private boolean requireSymbol = false;
+    /** Passwords rejected outright, compared ignoring case */
+    private List<String> deniedPasswords = new ArrayList<>();
+    /**
+     * Minimum number of single-character edits (ignoring case) between the current and the new password
+     * 1 only rejects reusing the same password
+     */
+    private int minChangesFromCurrent = 3;
+}
@@ -0,0 +1,30 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * R2DBC connection pool behind the non-blocking read API (prefix "app.reactive.r2dbc")
+ *
+ * Deliberately not spring.r2dbc: Spring Boot stops configuring the JDBC DataSource
+ * (used by JPA and Flyway) as soon as it auto-configures an R2DBC ConnectionFactory.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.reactive.r2dbc")
+public class ReactiveDatabaseProperties {
+
+    private String url = "r2dbc:mysql://localhost:3306/store";
+    private String username;
+    private String password;
+    /** Connections kept open for the reactive API, independent of the Hikari pool */
+    private int maxSize = 20;
+    private Duration maxIdleTime = Duration.ofMinutes(30);
+    /** Longest a query waits for a pooled connection */
+    private Duration maxAcquireTime = Duration.ofSeconds(5);
+    /** Rows fetched per round trip when streaming the whole table */
+    private int fetchSize = 500;
+}
@@ -0,0 +1,82 @@
+package com.example.demo.config;
+
+import com.example.demo.datasource.ReplicaLagMonitor;
+import com.example.demo.datasource.ReplicaReadDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Primary/replica connection routing (app.datasource.replica.enabled=true)
+ *
+ * Replaces the auto-configured DataSource with two Hikari pools behind a
+ * LazyConnectionDataSourceProxy. The proxy fetches the physical connection at the first
+ * statement, by which time a @Transactional(readOnly = true) transaction has marked it
+ * read-only; read-only connections come from ReplicaReadDataSource, everything else
+ * (writes, non-transactional work, Flyway) from the primary.
+ *
+ * The Hibernate query cache is switched off: a result read from a lagging replica would
+ * be cached as current until the next write to the table. Entities stay cached, since
+ * read-only methods only load projections.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        dataSource.setPoolName("replica");
+        // A write routed here by mistake fails instead of diverging from the primary
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                               ReplicaDataSourceProperties properties, MeterRegistry registry) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, properties, registry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor, MeterRegistry registry) {
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primaryDataSource);
+        routing.setReadOnlyDataSource(
+                new ReplicaReadDataSource(replicaDataSource, primaryDataSource, replicaLagMonitor, registry));
+        return routing;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer replicaQueryCacheCustomizer() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+    }
+}
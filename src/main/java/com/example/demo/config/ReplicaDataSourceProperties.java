@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read replica for read-only transactions (prefix "app.datasource.replica")
+ *
+ * Pool settings go under app.datasource.replica.hikari, like spring.datasource.hikari
+ * for the primary.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /** Off: every connection comes from spring.datasource */
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    /** Read-only work goes to the primary while the replica is further behind than this */
+    private Duration maxLag = Duration.ofSeconds(5);
+    /** How often the heartbeat is written to the primary and read back from the replica */
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+}
@@ -0,0 +1,34 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Login sessions (prefix "app.security.sessions")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.security.sessions")
+public class SessionProperties {
+
+    public enum Store {
+        /** Per-instance map; needs sticky sessions when several instances run */
+        MEMORY,
+        /** user_sessions table in the application database, shared by every instance */
+        JDBC
+    }
+
+    private Store store = Store.MEMORY;
+    /** Sessions end after this long without a request */
+    private Duration timeout = Duration.ofMinutes(30);
+    private String cookieName = "USER_SESSION";
+    /** Send the cookie over HTTPS only */
+    private boolean secureCookie = false;
+    /** MEMORY: upper bound on sessions kept; least recently used ones are dropped */
+    private long maximumSessions = 100_000;
+    /** JDBC: minimum time between deletions of expired rows */
+    private Duration cleanupInterval = Duration.ofMinutes(5);
+}
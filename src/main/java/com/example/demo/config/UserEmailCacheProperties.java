@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the login email-to-id cache (prefix "app.users.email-cache")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.users.email-cache")
+public class UserEmailCacheProperties {
+
+    private long maximumSize = 10_000;
+    private Duration ttl = Duration.ofMinutes(10);
+}
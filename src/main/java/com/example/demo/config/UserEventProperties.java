@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * User change events (prefix "app.users.events")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.users.events")
+public class UserEventProperties {
+
+    /**
+     * Run the outbox dispatcher (UserEventSubscribers, published_at) in this instance. Events
+     * are always written and always reach the LocalUserEventSubscribers of every instance;
+     * with several instances, enable it on exactly one of them.
+     */
+    private boolean dispatcherEnabled = true;
+    /** Events read and handed to subscribers at a time */
+    private int batchSize = 500;
+    /** Check for events committed elsewhere this often; local commits wake the dispatcher at once */
+    private Duration pollInterval = Duration.ofSeconds(1);
+    /** Wait after a failed delivery before the batch is delivered again */
+    private Duration retryDelay = Duration.ofSeconds(5);
+    /** Failed deliveries of a batch before its events go one at a time and the ones still failing are skipped */
+    private int maxAttempts = 10;
+    /** How long an instance keeps looking for an event id that newer committed ids passed over */
+    private Duration gapTimeout = Duration.ofMinutes(1);
+    /** Published events are kept this long, then purged */
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the paged user list in the web UI (prefix "app.users.list")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.users.list")
+public class UserListProperties {
+
+    public enum CountMode {
+        /** Always run select count(*) */
+        EXACT,
+        /** Use table statistics when the table is large, exact count otherwise */
+        ESTIMATE,
+        /** Never count, only show First/Next navigation */
+        NONE
+    }
+
+    private int defaultPageSize = 25;
+    private int maxPageSize = 100;
+    private CountMode countMode = CountMode.ESTIMATE;
+    private long exactCountThreshold = 100_000;
+}
@@ -0,0 +1,23 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * In-memory user search (prefix "app.users.search")
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.users.search")
+public class UserSearchProperties {
+
+    private int defaultLimit = 10;
+    private int maxLimit = 50;
+    /**
+     * Upper bound on documents ranked per query, which keeps a query well under a millisecond
+     * on a million users. Very short queries ("j") can match a large share of all users;
+     * only the first this many candidates, in id order, are ranked.
+     */
+    private int maxCandidates = 1_000;
+}
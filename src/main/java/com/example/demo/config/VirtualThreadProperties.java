@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Safeguards applied when requests run on virtual threads (prefix "app.virtual-threads")
+ * Virtual threads are switched on with spring.threads.virtual.enabled
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.virtual-threads")
+public class VirtualThreadProperties {
+
+    /**
+     * Requests handled at once; the rest wait up to acquireTimeout, then get a 503
+     * Replaces the cap the Tomcat thread pool used to provide, so a flood queues here
+     * instead of piling up on the connection pool
+     */
+    private int maxConcurrentRequests = 200;
+    /** How long a request may wait for a slot */
+    private Duration acquireTimeout = Duration.ofSeconds(1);
+    /** Pinned virtual threads blocked at least this long are reported */
+    private Duration pinningThreshold = Duration.ofMillis(20);
+}
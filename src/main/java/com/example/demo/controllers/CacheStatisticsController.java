@@ -0,0 +1,49 @@
+package com.example.demo.controllers;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit/miss counters of the Hibernate second-level and query caches
+ */
+@RestController
+@AllArgsConstructor
+@RequestMapping("/cache")
+public class CacheStatisticsController {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @GetMapping("/stats")
+    public Map<String, Object> getCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, Map.of(
+                        "hits", region.getHitCount(),
+                        "misses", region.getMissCount(),
+                        "puts", region.getPutCount(),
+                        "elementsInMemory", region.getElementCountInMemory()));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        result.put("regions", regions);
+        return result;
+    }
+}
@@ -5,10 +5,16 @@ import com.example.demo.dtos.UserDto;
 import com.example.demo.dtos.ChangePasswordRequest;
 import com.example.demo.exceptions.InvalidCredentialsException;
 import com.example.demo.exceptions.InvalidUserStateException;
+import com.example.demo.exceptions.LoginThrottledException;
+import com.example.demo.exceptions.ServiceOverloadedException;
 import com.example.demo.exceptions.UserNotFoundException;
 import com.example.demo.exceptions.WeakPasswordException;
+import com.example.demo.security.UserSession;
+import com.example.demo.security.UserSessions;
+import com.example.demo.services.UserQueryService;
 import com.example.demo.services.UserService;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,14 +29,16 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 public class HomeController {
 
     private final UserService userService;
+    private final UserQueryService userQueryService;
+    private final UserSessions userSessions;
 
     /**
      * Redirect root URL to login page
      */
     @GetMapping("/")
-    public String home(HttpSession session) {
+    public String home(HttpServletRequest request) {
         // If already logged in, redirect to users list
-        if (session.getAttribute("loggedInUser") != null) {
+        if (userSessions.current(request).isPresent()) {
             return "redirect:/ui/users";
         }
         return "redirect:/login";
@@ -40,9 +48,9 @@ public class HomeController {
      * Display login page
      */
     @GetMapping("/login")
-    public String showLoginPage(HttpSession session, Model model) {
+    public String showLoginPage(HttpServletRequest request, Model model) {
         // If already logged in, redirect to users list
-        if (session.getAttribute("loggedInUser") != null) {
+        if (userSessions.current(request).isPresent()) {
             return "redirect:/ui/users";
         }
         model.addAttribute("loginRequest", new LoginRequest());
@@ -54,19 +62,22 @@ public class HomeController {
      */
     @PostMapping("/login")
     public String login(@ModelAttribute LoginRequest loginRequest,
-                       HttpSession session,
+                       HttpServletRequest request,
+                       HttpServletResponse response,
                        RedirectAttributes redirectAttributes) {
         try {
-            // Call service layer for authentication
-            UserDto user = userService.login(loginRequest.getEmail(), loginRequest.getPassword());
+            // Call service layer for authentication (throttled per email and client IP)
+            UserDto user = userService.login(loginRequest.getEmail(), loginRequest.getPassword(),
+                    request.getRemoteAddr());
 
-            // Store user in session
-            session.setAttribute("loggedInUser", user);
+            // Start a session: the cookie maps to the user id only
+            userSessions.login(user.getId(), request, response);
 
             redirectAttributes.addFlashAttribute("successMessage", "Welcome, " + user.getName() + "!");
             return "redirect:/ui/users";
 
-        } catch (UserNotFoundException | InvalidCredentialsException | InvalidUserStateException e) {
+        } catch (UserNotFoundException | InvalidCredentialsException | InvalidUserStateException
+                 | LoginThrottledException | ServiceOverloadedException e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
             return "redirect:/login";
         }
@@ -76,8 +87,9 @@ public class HomeController {
      * Handle logout
      */
     @GetMapping("/logout")
-    public String logout(HttpSession session, RedirectAttributes redirectAttributes) {
-        session.invalidate();
+    public String logout(HttpServletRequest request, HttpServletResponse response,
+                         RedirectAttributes redirectAttributes) {
+        userSessions.logout(request, response);
         redirectAttributes.addFlashAttribute("successMessage", "You have been logged out successfully");
         return "redirect:/login";
     }
@@ -86,8 +98,10 @@ public class HomeController {
      * Display change password page
      */
     @GetMapping("/change-password")
-    public String showChangePasswordPage(HttpSession session, Model model, RedirectAttributes redirectAttributes) {
-        UserDto loggedInUser = (UserDto) session.getAttribute("loggedInUser");
+    public String showChangePasswordPage(HttpServletRequest request, Model model, RedirectAttributes redirectAttributes) {
+        UserDto loggedInUser = userSessions.current(request)
+                .flatMap(session -> userQueryService.findUser(session.userId()))
+                .orElse(null);
 
         if (loggedInUser == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
@@ -103,9 +117,9 @@ public class HomeController {
      */
     @PostMapping("/change-password")
     public String changePassword(@ModelAttribute ChangePasswordRequest request,
-                                HttpSession session,
+                                HttpServletRequest httpRequest,
                                 RedirectAttributes redirectAttributes) {
-        UserDto loggedInUser = (UserDto) session.getAttribute("loggedInUser");
+        UserSession loggedInUser = userSessions.current(httpRequest).orElse(null);
 
         if (loggedInUser == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
@@ -114,19 +128,16 @@ public class HomeController {
 
         try {
             // Call service layer for password change
-            UserDto updatedUser = userService.changePassword(
-                loggedInUser.getId(),
+            userService.changePassword(
+                loggedInUser.userId(),
                 request.getOldPassword(),
                 request.getNewPassword()
             );
 
-            // Update session with new user data
-            session.setAttribute("loggedInUser", updatedUser);
-
             redirectAttributes.addFlashAttribute("successMessage", "Password changed successfully!");
             return "redirect:/ui/users";
 
-        } catch (InvalidCredentialsException | WeakPasswordException e) {
+        } catch (InvalidCredentialsException | WeakPasswordException | ServiceOverloadedException e) {
             redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
             return "redirect:/change-password";
         }
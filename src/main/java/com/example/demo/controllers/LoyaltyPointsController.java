@@ -0,0 +1,61 @@
+package com.example.demo.controllers;
+
+import com.example.demo.config.LoyaltyProperties;
+import com.example.demo.dtos.LoyaltyAwardRequest;
+import com.example.demo.dtos.LoyaltyLedgerEntryDto;
+import com.example.demo.dtos.LoyaltyPointsDto;
+import com.example.demo.exceptions.UserNotFoundException;
+import com.example.demo.services.LoyaltyPointsService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/users/{id}/loyalty-points")
+public class LoyaltyPointsController {
+
+    // Size of loyalty_points_ledger.reason
+    private static final int MAX_REASON_LENGTH = 50;
+    private static final int MAX_HISTORY_LIMIT = 500;
+
+    private final LoyaltyPointsService loyaltyPointsService;
+    private final LoyaltyProperties loyaltyProperties;
+
+    @GetMapping
+    public ResponseEntity<LoyaltyPointsDto> getPoints(@PathVariable Long id) {
+        return ResponseEntity.of(loyaltyPointsService.getPoints(id));
+    }
+
+    // GET /users/{id}/loyalty-points/history?limit=50, newest first
+    @GetMapping("/history")
+    public ResponseEntity<List<LoyaltyLedgerEntryDto>> getHistory(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1 || limit > MAX_HISTORY_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.of(loyaltyPointsService.getHistory(id, limit));
+    }
+
+    // Body {"points": 10, "reason": "purchase"}: 200 with the new balance, 202 if written behind
+    @PostMapping
+    public ResponseEntity<LoyaltyPointsDto> award(@PathVariable Long id, @RequestBody LoyaltyAwardRequest request) {
+        Integer points = request.getPoints();
+        String reason = request.getReason() == null ? null : request.getReason().strip();
+        if (points == null || points <= 0 || points > loyaltyProperties.getMaxPointsPerAward()
+                || reason == null || reason.isEmpty() || reason.length() > MAX_REASON_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean applied;
+        try {
+            applied = loyaltyPointsService.award(id, reason, points);
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return loyaltyPointsService.getPoints(id)
+                .map(current -> applied ? ResponseEntity.ok(current) : ResponseEntity.accepted().body(current))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.controllers;
+
+import com.example.demo.repositories.ReactiveUserRepository;
+import com.example.demo.services.UserQueryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.web.servlet.function.RequestPredicates.accept;
+import static org.springframework.web.servlet.function.RouterFunctions.route;
+
+/**
+ * Non-blocking read API for users, as functional endpoints under /reactive/users
+ *
+ * Handlers return immediately with an async response fed by R2DBC, so no request
+ * thread is parked while the database works. Streams are written one element at a
+ * time as the client consumes them (one row requested per element written).
+ *
+ * GET /reactive/users/{id}              - one user, 404 if missing
+ * GET /reactive/users/{id}/addresses    - the user's addresses
+ * GET /reactive/users?sort=name         - every user, as NDJSON or server-sent events (by Accept,
+ *                                         NDJSON without one); 406 for any other Accept
+ */
+@Configuration
+@AllArgsConstructor
+public class ReactiveUserRoutes {
+
+    private static final MediaType NDJSON_UTF8 = new MediaType(MediaType.APPLICATION_NDJSON, StandardCharsets.UTF_8);
+    private static final MediaType EVENT_STREAM_UTF8 = new MediaType(MediaType.TEXT_EVENT_STREAM, StandardCharsets.UTF_8);
+
+    private final ReactiveUserRepository reactiveUserRepository;
+    private final ObjectMapper objectMapper;
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveUserRouter() {
+        return route()
+                .GET("/reactive/users/{id}", this::getUser)
+                .GET("/reactive/users/{id}/addresses", this::getAddresses)
+                // NDJSON first: it is what a missing Accept or */* gets
+                .GET("/reactive/users", accept(MediaType.APPLICATION_NDJSON), this::streamUsersAsNdjson)
+                .GET("/reactive/users", accept(MediaType.TEXT_EVENT_STREAM), this::streamUsersAsEvents)
+                // Neither format acceptable (e.g. Accept: application/json): say so rather than 404
+                .GET("/reactive/users", request -> ServerResponse.status(HttpStatus.NOT_ACCEPTABLE).build())
+                .build();
+    }
+
+    private ServerResponse getUser(ServerRequest request) {
+        Long id = pathId(request);
+        if (id == null) {
+            return ServerResponse.badRequest().build();
+        }
+        return ServerResponse.async(reactiveUserRepository.findDtoById(id)
+                .map(user -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(user))
+                .defaultIfEmpty(ServerResponse.notFound().build()));
+    }
+
+    private ServerResponse getAddresses(ServerRequest request) {
+        Long id = pathId(request);
+        if (id == null) {
+            return ServerResponse.badRequest().build();
+        }
+        return ServerResponse.async(reactiveUserRepository.findAddressesByUserId(id)
+                .collectList()
+                .map(addresses -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).body(addresses)));
+    }
+
+    private ServerResponse streamUsersAsNdjson(ServerRequest request) {
+        String sort = request.param("sort").orElse("name");
+        if (!UserQueryService.isStreamSort(sort)) {
+            return ServerResponse.badRequest().build();
+        }
+        Flux<String> lines = usersAsJson(sort).map(json -> json + "\n");
+        return ServerResponse.ok().contentType(NDJSON_UTF8).body(lines);
+    }
+
+    private ServerResponse streamUsersAsEvents(ServerRequest request) {
+        String sort = request.param("sort").orElse("name");
+        if (!UserQueryService.isStreamSort(sort)) {
+            return ServerResponse.badRequest().build();
+        }
+        Flux<String> events = usersAsJson(sort).map(json -> "data:" + json + "\n\n");
+        return ServerResponse.ok().contentType(EVENT_STREAM_UTF8).body(events);
+    }
+
+    private Flux<String> usersAsJson(String sort) {
+        return reactiveUserRepository.streamAll(sort).map(user -> {
+            try {
+                return objectMapper.writeValueAsString(user);
+            } catch (JsonProcessingException e) {
+                throw Exceptions.propagate(e);
+            }
+        });
+    }
+
+    private static Long pathId(ServerRequest request) {
+        try {
+            return Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,16 +1,46 @@
 package com.example.demo.controllers;
 
+import com.example.demo.dtos.BulkImportResultDto;
+import com.example.demo.dtos.BulkStatusChangeRequest;
+import com.example.demo.dtos.BulkStatusChangeResultDto;
 import com.example.demo.dtos.ChangePasswordRequest;
 import com.example.demo.dtos.RegisterUserRequest;
 import com.example.demo.dtos.UpdateUserRequest;
 import com.example.demo.dtos.UserDto;
+import com.example.demo.dtos.UserListVersion;
+import com.example.demo.dtos.UserPageDto;
+import com.example.demo.entities.User;
+import com.example.demo.events.UserEventPublisher;
+import com.example.demo.events.UserEventType;
 import com.example.demo.mappers.UserMapper;
 import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.PasswordService;
+import com.example.demo.security.SessionStore;
+import com.example.demo.services.UserExportService;
+import com.example.demo.services.UserImportService;
+import com.example.demo.services.UserQueryService;
+import com.example.demo.services.UserSearchIndex;
 import com.example.demo.services.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @AllArgsConstructor
@@ -20,41 +50,171 @@ public class UserController {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final UserService userService;
+    private final PasswordService passwordService;
+    private final SessionStore sessionStore;
+    private final UserQueryService userQueryService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserEventPublisher userEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public Iterable<UserDto> getAllUsers(
-            @RequestHeader(name = "x-auth-token", required = false) String authToken,
+    public ResponseEntity<List<UserDto>> getAllUsers(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(required = false, defaultValue = "name") String sort) {
+        // Revalidation: one aggregate query decides 304 before any row is read or serialized
+        if (ifNoneMatch != null) {
+            String etag = listETag(userQueryService.findListVersion());
+            if (matchesAny(ifNoneMatch, etag, false)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+        }
+        var users = userQueryService.findAllVersioned(sort);
+        return ResponseEntity.ok().eTag(listETag(users.version())).body(users.users());
+    }
+
+    // Keyset pagination: GET /users?limit=50[&sort=name|id][&after=<cursor>]
+    @GetMapping(params = "limit")
+    public ResponseEntity<UserPageDto> getUsersPage(
+            @RequestParam(required = false, defaultValue = "name") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam int limit) {
+        try {
+            return ResponseEntity.ok(userQueryService.findPage(sort, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Streaming mode: one JSON object per line, written as rows come off the result set
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers(
             @RequestParam(required = false, defaultValue = "name") String sort) {
-        System.out.println("Auth Token: " + authToken);
-        return userRepository.findAll(Sort.by(sort)).stream().map(userMapper::toDto).toList();
+        if (!UserQueryService.isStreamSort(sort)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> userQueryService.streamAll(sort, user -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // Type-ahead search over name and email words, tolerant of one typo: GET /users/search?q=jo&limit=10
+    @GetMapping("/search")
+    public List<UserDto> searchUsers(@RequestParam String q,
+                                     @RequestParam(required = false) Integer limit) {
+        return userSearchIndex.search(q, limit);
+    }
+
+    // Full export with addresses: GET /users/export?format=csv|ndjson[&gzip=true]
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false, defaultValue = "csv") String format,
+            @RequestParam(required = false, defaultValue = "false") boolean gzip) {
+        UserExportService.Format exportFormat;
+        try {
+            exportFormat = UserExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                userExportService.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                userExportService.export(exportFormat, out);
+            }
+        };
+
+        String fileName = "users." + exportFormat.name().toLowerCase(Locale.ROOT) + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == UserExportService.Format.CSV ? MediaType.parseMediaType("text/csv")
+                : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(contentType)
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUser(@PathVariable Long id) {
-        var user = userRepository.findById(id).orElse(null);
-        if(user == null) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<UserDto> getUser(@PathVariable Long id,
+                                           @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Revalidation: a version lookup decides 304 before the user is read or serialized
+        if (ifNoneMatch != null) {
+            Long version = userQueryService.findVersion(id).orElse(null);
+            if (version == null) {
+                return ResponseEntity.notFound().build();
+            }
+            String etag = userETag(version);
+            if (matchesAny(ifNoneMatch, etag, false)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
         }
-        return ResponseEntity.ok(userMapper.toDto(user));
+        return userQueryService.findVersionedUser(id)
+                .map(user -> ResponseEntity.ok().eTag(userETag(user.getVersion())).body(user.getUser()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public UserDto createUser(@RequestBody RegisterUserRequest data) {
         var user = userMapper.toEntity(data);
-        userRepository.save(user);
-        return userMapper.toDto(user);
+        user.setPassword(passwordService.hash(user.getPassword()));
+        // The user and its CREATED event commit together
+        return transactionTemplate.execute(tx -> {
+            userRepository.save(user);
+            UserDto dto = userMapper.toDto(user);
+            userEventPublisher.publish(UserEventType.CREATED, dto);
+            return dto;
+        });
+    }
+
+    // Bulk creation from a JSON array, parsed as it streams in
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResultDto bulkCreateUsersFromJson(InputStream body) {
+        return userImportService.importJson(body);
+    }
+
+    // Bulk creation from CSV with a name,email,password header
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public BulkImportResultDto bulkCreateUsersFromCsv(InputStream body) {
+        return userImportService.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8));
     }
 
+    // Optional If-Match: send the ETag from a previous GET to refuse the update if the user changed since
     @PutMapping("/{id}")
     public ResponseEntity<UserDto> updateUser(@PathVariable Long id,
+                                              @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                               @RequestBody UpdateUserRequest data) {
         var user = userRepository.findById(id).orElse(null);
         if(user == null) {
             return ResponseEntity.notFound().build();
         }
+        if (ifMatch != null && !matchesAny(ifMatch, userETag(user.getVersion()), true)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).eTag(userETag(user.getVersion())).build();
+        }
         userMapper.update(data, user);
-        userRepository.save(user);
-        return ResponseEntity.ok(userMapper.toDto(user));
+        User saved;
+        try {
+            saved = transactionTemplate.execute(tx -> {
+                // Flushed here so the new version is known and a conflict surfaces before the event
+                User merged = userRepository.saveAndFlush(user);
+                userEventPublisher.publish(UserEventType.UPDATED, userMapper.toDto(merged));
+                return merged;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            // Another request updated the user between the read above and this write
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok().eTag(userETag(saved.getVersion())).body(userMapper.toDto(saved));
     }
 
     @DeleteMapping("/{id}")
@@ -63,7 +223,12 @@ public class UserController {
         if(user == null) {
             return ResponseEntity.notFound().build();
         }
-        userRepository.delete(user);
+        transactionTemplate.executeWithoutResult(tx -> {
+            userRepository.delete(user);
+            userEventPublisher.publish(UserEventType.DELETED, userMapper.toDto(user));
+        });
+        // Committed: end the sessions the in-memory store still holds for the user
+        sessionStore.deactivateUsers(List.of(id));
         return ResponseEntity.noContent().build();
     }
 
@@ -86,5 +251,51 @@ public class UserController {
         UserDto user = userService.deactivateUser(id);
         return ResponseEntity.ok(user);
     }
-}
 
+    // Bulk activation: body {"ids": [...]} or {"emailDomain": "example.com"}
+    @PutMapping("/activate")
+    public ResponseEntity<BulkStatusChangeResultDto> activateUsers(@RequestBody BulkStatusChangeRequest request) {
+        return changeStatus(request, true);
+    }
+
+    // Bulk deactivation: body {"ids": [...]} or {"emailDomain": "example.com"}
+    @PutMapping("/deactivate")
+    public ResponseEntity<BulkStatusChangeResultDto> deactivateUsers(@RequestBody BulkStatusChangeRequest request) {
+        return changeStatus(request, false);
+    }
+
+    private ResponseEntity<BulkStatusChangeResultDto> changeStatus(BulkStatusChangeRequest request, boolean active) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byDomain = request.getEmailDomain() != null && !request.getEmailDomain().isBlank();
+        if (byIds == byDomain) {
+            // Exactly one selector is required
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(byIds
+                ? userService.setActive(request.getIds(), active)
+                : userService.setActiveByEmailDomain(request.getEmailDomain(), active));
+    }
+
+    private static String userETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static String listETag(UserListVersion version) {
+        return "\"" + version.getCount() + "-" + version.getMaxId() + "-"
+                + Long.toHexString(version.getIdSum()) + "-" + Long.toHexString(version.getVersionSum()) + "\"";
+    }
+
+    /**
+     * True when an If-None-Match (weak comparison) or If-Match (strong comparison)
+     * header lists the given entity tag or is "*"
+     */
+    private static boolean matchesAny(String header, String etag, boolean strong) {
+        ETag current = ETag.create(etag);
+        for (ETag candidate : ETag.parse(header)) {
+            if (candidate.isWildcard() || candidate.compare(current, strong)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
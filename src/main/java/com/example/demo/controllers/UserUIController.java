@@ -1,18 +1,30 @@
 package com.example.demo.controllers;
 
+import com.example.demo.config.UserListProperties;
 import com.example.demo.dtos.RegisterUserRequest;
 import com.example.demo.dtos.UpdateUserRequest;
+import com.example.demo.dtos.UserDto;
+import com.example.demo.dtos.UserPageDto;
+import com.example.demo.events.UserEventPublisher;
+import com.example.demo.events.UserEventType;
 import com.example.demo.mappers.UserMapper;
 import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.PasswordService;
+import com.example.demo.security.SessionStore;
+import com.example.demo.security.UserSessions;
+import com.example.demo.services.UserQueryService;
 import com.example.demo.services.UserService;
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.Sort;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.List;
+
 @Controller
 @AllArgsConstructor
 @RequestMapping("/ui/users")
@@ -21,35 +33,57 @@ public class UserUIController {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final UserService userService;
+    private final PasswordService passwordService;
+    private final UserQueryService userQueryService;
+    private final UserListProperties listProperties;
+    private final UserSessions userSessions;
+    private final SessionStore sessionStore;
+    private final UserEventPublisher userEventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
     // Helper method to check if user is logged in
-    private boolean isLoggedIn(HttpSession session) {
-        return session.getAttribute("loggedInUser") != null;
+    private boolean isLoggedIn(HttpServletRequest httpRequest) {
+        return userSessions.current(httpRequest).isPresent();
     }
 
-    // Display all users
+    // Display one page of users (keyset paging on name, email or id)
     @GetMapping
     public String listUsers(Model model,
                            @RequestParam(required = false, defaultValue = "name") String sort,
-                           HttpSession session,
+                           @RequestParam(required = false) String after,
+                           @RequestParam(required = false) Integer size,
+                           HttpServletRequest httpRequest,
                            RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
 
-        var users = userRepository.findAll(Sort.by(sort)).stream()
-                .map(userMapper::toDto)
-                .toList();
-        model.addAttribute("users", users);
+        int pageSize = size == null
+                ? listProperties.getDefaultPageSize()
+                : Math.max(1, Math.min(size, listProperties.getMaxPageSize()));
+
+        UserPageDto page;
+        try {
+            page = userQueryService.findPage(sort, after, pageSize);
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+            return "redirect:/ui/users";
+        }
+
+        model.addAttribute("users", page.getItems());
+        model.addAttribute("nextCursor", page.getNext());
+        model.addAttribute("firstPage", after == null);
+        model.addAttribute("userCount", userQueryService.countUsers());
         model.addAttribute("currentSort", sort);
+        model.addAttribute("pageSize", pageSize);
         return "users/list";
     }
 
     // Show create user form
     @GetMapping("/new")
-    public String showCreateForm(Model model, HttpSession session, RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+    public String showCreateForm(Model model, HttpServletRequest httpRequest, RedirectAttributes redirectAttributes) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
@@ -62,15 +96,19 @@ public class UserUIController {
     // Handle create user form submission
     @PostMapping
     public String createUser(@ModelAttribute RegisterUserRequest request,
-                           HttpSession session,
+                           HttpServletRequest httpRequest,
                            RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
 
         var user = userMapper.toEntity(request);
-        userRepository.save(user);
+        user.setPassword(passwordService.hash(user.getPassword()));
+        transactionTemplate.executeWithoutResult(tx -> {
+            userRepository.save(user);
+            userEventPublisher.publish(UserEventType.CREATED, userMapper.toDto(user));
+        });
         redirectAttributes.addFlashAttribute("successMessage", "User created successfully!");
         return "redirect:/ui/users";
     }
@@ -78,33 +116,33 @@ public class UserUIController {
     // Show user details
     @GetMapping("/{id}")
     public String viewUser(@PathVariable Long id, Model model,
-                          HttpSession session,
+                          HttpServletRequest httpRequest,
                           RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
 
-        var user = userRepository.findById(id).orElse(null);
+        var user = userQueryService.findUser(id).orElse(null);
         if (user == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "User not found!");
             return "redirect:/ui/users";
         }
-        model.addAttribute("user", userMapper.toDto(user));
+        model.addAttribute("user", user);
         return "users/view";
     }
 
     // Show edit user form
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id, Model model,
-                              HttpSession session,
+                              HttpServletRequest httpRequest,
                               RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
 
-        var user = userRepository.findById(id).orElse(null);
+        var user = userQueryService.findUser(id).orElse(null);
         if (user == null) {
             redirectAttributes.addFlashAttribute("errorMessage", "User not found!");
             return "redirect:/ui/users";
@@ -121,9 +159,9 @@ public class UserUIController {
     // Handle update user form submission
     @PutMapping("/{id}")
     public String updateUser(@PathVariable Long id, @ModelAttribute UpdateUserRequest request,
-                            HttpSession session,
+                            HttpServletRequest httpRequest,
                             RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
@@ -134,7 +172,17 @@ public class UserUIController {
             return "redirect:/ui/users";
         }
         userMapper.update(request, user);
-        userRepository.save(user);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                UserDto dto = userMapper.toDto(userRepository.save(user));
+                userEventPublisher.publish(UserEventType.UPDATED, dto);
+            });
+        } catch (OptimisticLockingFailureException e) {
+            // Changed since it was loaded above: the merge is version-checked
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "This user was changed by someone else. Reload and try again.");
+            return "redirect:/ui/users/" + id + "/edit";
+        }
         redirectAttributes.addFlashAttribute("successMessage", "User updated successfully!");
         return "redirect:/ui/users/" + id;
     }
@@ -142,9 +190,9 @@ public class UserUIController {
     // Handle delete user
     @DeleteMapping("/{id}")
     public String deleteUser(@PathVariable Long id,
-                            HttpSession session,
+                            HttpServletRequest httpRequest,
                             RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
@@ -154,7 +202,18 @@ public class UserUIController {
             redirectAttributes.addFlashAttribute("errorMessage", "User not found!");
             return "redirect:/ui/users";
         }
-        userRepository.delete(user);
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                userRepository.delete(user);
+                userEventPublisher.publish(UserEventType.DELETED, userMapper.toDto(user));
+            });
+        } catch (OptimisticLockingFailureException e) {
+            redirectAttributes.addFlashAttribute("errorMessage",
+                    "This user was changed by someone else. Reload and try again.");
+            return "redirect:/ui/users";
+        }
+        // Committed: end the sessions the in-memory store still holds for the user
+        sessionStore.deactivateUsers(List.of(id));
         redirectAttributes.addFlashAttribute("successMessage", "User deleted successfully!");
         return "redirect:/ui/users";
     }
@@ -162,9 +221,9 @@ public class UserUIController {
     // Activate user account
     @PostMapping("/{id}/activate")
     public String activateUser(@PathVariable Long id,
-                              HttpSession session,
+                              HttpServletRequest httpRequest,
                               RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
@@ -181,9 +240,9 @@ public class UserUIController {
     // Deactivate user account
     @PostMapping("/{id}/deactivate")
     public String deactivateUser(@PathVariable Long id,
-                                HttpSession session,
+                                HttpServletRequest httpRequest,
                                 RedirectAttributes redirectAttributes) {
-        if (!isLoggedIn(session)) {
+        if (!isLoggedIn(httpRequest)) {
             redirectAttributes.addFlashAttribute("errorMessage", "Please log in to continue");
             return "redirect:/login";
         }
@@ -0,0 +1,133 @@
+package com.example.demo.datasource;
+
+import com.example.demo.config.ReplicaDataSourceProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether the replica is fresh enough to serve reads
+ *
+ * Every heartbeat interval the replica's copy of replication_heartbeat is read, then the
+ * current time is written to the primary. The replica is as far behind as the last beat
+ * written here is ahead of the beat it shows, give or take one interval. It is usable
+ * while that lag is within max-lag and it answers; until the first check succeeds, and
+ * after any failure, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final LongSupplier clock;
+    private final long maxLagMillis;
+    private final long intervalMillis;
+    private final AtomicLong lagMillis = new AtomicLong(-1);
+
+    private volatile boolean usable;
+    private long lastBeat = -1;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, ReplicaDataSourceProperties properties,
+                             MeterRegistry registry) {
+        this(primary, replica, properties, registry, System::currentTimeMillis);
+    }
+
+    ReplicaLagMonitor(DataSource primary, DataSource replica, ReplicaDataSourceProperties properties,
+                      MeterRegistry registry, LongSupplier clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.clock = clock;
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.intervalMillis = properties.getHeartbeatInterval().toMillis();
+        Gauge.builder("datasource.replica.lag", lagMillis, AtomicLong::get)
+                .description("Replica lag in ms at the last heartbeat check, -1 if unknown")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.isUsable() ? 1 : 0)
+                .description("1 while read-only transactions go to the replica")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public long getLagMillis() {
+        return lagMillis.get();
+    }
+
+    /**
+     * Take the replica out of rotation until the next successful check
+     */
+    public void replicaFailed(Exception e) {
+        if (usable) {
+            log.warn("Replica unavailable, reading from the primary: {}", e.toString());
+        }
+        usable = false;
+        lagMillis.set(-1);
+    }
+
+    synchronized void check() {
+        try {
+            Long visible = replica.queryForObject("select beat_at from replication_heartbeat where id = 1", Long.class);
+            if (lastBeat < 0 || visible == null) {
+                // Nothing written from here yet to compare with
+                setUsable(false, -1);
+            } else {
+                long lag = Math.max(0, lastBeat - visible);
+                setUsable(lag <= maxLagMillis, lag);
+            }
+        } catch (RuntimeException e) {
+            // Whatever went wrong, the replica cannot be trusted until the next check
+            replicaFailed(e);
+        }
+        try {
+            long now = clock.getAsLong();
+            primary.update("update replication_heartbeat set beat_at = ? where id = 1", now);
+            lastBeat = now;
+        } catch (RuntimeException e) {
+            log.warn("Writing the replication heartbeat failed: {}", e.toString());
+        }
+    }
+
+    private void setUsable(boolean value, long lag) {
+        lagMillis.set(lag);
+        if (value != usable) {
+            if (value) {
+                log.info("Replica caught up ({} ms behind), serving read-only transactions", lag);
+            } else {
+                log.warn("Replica {} ms behind (max {} ms), reading from the primary", lag, maxLagMillis);
+            }
+        }
+        usable = value;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of connections for read-only transactions
+ *
+ * Hands out replica connections while the ReplicaLagMonitor considers the replica
+ * usable, primary connections otherwise. A replica that fails to give a connection is
+ * taken out of rotation at once and the primary serves the request instead.
+ */
+public class ReplicaReadDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReplicaLagMonitor monitor;
+    private final Counter fallbacks;
+
+    public ReplicaReadDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor monitor,
+                                 MeterRegistry registry) {
+        this.replica = replica;
+        this.primary = primary;
+        this.monitor = monitor;
+        this.fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only connections taken from the primary because the replica lagged or failed")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (monitor.isUsable()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                monitor.replicaFailed(e);
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (monitor.isUsable()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                monitor.replicaFailed(e);
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection(username, password);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AddressDto {
+
+    private Long id;
+    private String street;
+    private String city;
+    private String state;
+    private String zipCode;
+}
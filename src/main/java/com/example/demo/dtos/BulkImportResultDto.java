@@ -0,0 +1,29 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import, with one entry per rejected row
+ */
+@Getter
+@AllArgsConstructor
+public class BulkImportResultDto {
+
+   private int received;
+   private int created;
+   private int failed;
+   private long elapsedMillis;
+   private List<RowError> errors;
+
+   @Getter
+   @AllArgsConstructor
+   public static class RowError {
+      /** 1-based position of the row in the payload (data rows only for CSV) */
+      private int row;
+      private String email;
+      private String message;
+   }
+}
@@ -0,0 +1,14 @@
+package com.example.demo.dtos;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Selects the users of a bulk activate/deactivate: either explicit ids or every user of an email domain
+ */
+@Data
+public class BulkStatusChangeRequest {
+    private List<Long> ids;
+    private String emailDomain;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk activate/deactivate
+ * Id lists are only filled when the request selected users by id
+ */
+@Getter
+@AllArgsConstructor
+public class BulkStatusChangeResultDto {
+
+   private int updated;
+   private int alreadyInState;
+   private List<Long> alreadyInStateIds;
+   private List<Long> notFoundIds;
+}
@@ -0,0 +1,9 @@
+package com.example.demo.dtos;
+
+import lombok.Data;
+
+@Data
+public class LoyaltyAwardRequest {
+    private Integer points;
+    private String reason;
+}
@@ -0,0 +1,19 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * One row of a user's loyalty points history
+ * With write-behind, the sum of the awards for one reason in one flush
+ */
+@Getter
+@AllArgsConstructor
+public class LoyaltyLedgerEntryDto {
+
+    private long points;
+    private String reason;
+    private Instant createdAt;
+}
@@ -0,0 +1,17 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Loyalty balance of a user
+ * pending: write-behind awards accepted but not yet in the balance
+ */
+@Getter
+@AllArgsConstructor
+public class LoyaltyPointsDto {
+
+    private long userId;
+    private long balance;
+    private long pending;
+}
@@ -0,0 +1,22 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * One user/address pair of the export query (address fields are null for users without addresses)
+ */
+@Getter
+@AllArgsConstructor
+public class UserExportRow {
+
+   private Long userId;
+   private String name;
+   private String email;
+   private Boolean active;
+   private Long addressId;
+   private String street;
+   private String city;
+   private String state;
+   private String zipCode;
+}
@@ -0,0 +1,44 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Fingerprint of the whole users table, used as the ETag of the user list
+ *
+ * Every update increments a row version, so it moves the version sum. Inserts and
+ * deletes move the row count, and ids are never reused, so a delete paired with an
+ * insert still moves the id sum and maximum. The same values are computed either by
+ * one aggregate query or from the rows already loaded for a response.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class UserListVersion {
+
+    private long count;
+    private long maxId;
+    private long idSum;
+    private long versionSum;
+
+    // Target of the JPQL aggregate query, whose results are boxed
+    public UserListVersion(Long count, Long maxId, Long idSum, Long versionSum) {
+        this(count.longValue(), maxId.longValue(), idSum.longValue(), versionSum.longValue());
+    }
+
+    public static UserListVersion of(List<VersionedUserDto> users) {
+        long maxId = 0;
+        long idSum = 0;
+        long versionSum = 0;
+        for (VersionedUserDto user : users) {
+            long id = user.getUser().getId();
+            maxId = Math.max(maxId, id);
+            idSum += id;
+            versionSum += user.getVersion();
+        }
+        return new UserListVersion(users.size(), maxId, idSum, versionSum);
+    }
+}
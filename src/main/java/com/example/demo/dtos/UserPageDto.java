@@ -0,0 +1,18 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One keyset page of users plus the cursor for the next page
+ * (null when there are no more rows)
+ */
+@Getter
+@AllArgsConstructor
+public class UserPageDto {
+
+   private List<UserDto> items;
+   private String next;
+}
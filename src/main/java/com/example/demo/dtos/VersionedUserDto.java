@@ -0,0 +1,20 @@
+package com.example.demo.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A user projection together with its row version, for ETag generation
+ */
+@Getter
+@AllArgsConstructor
+public class VersionedUserDto {
+
+    private UserDto user;
+    private long version;
+
+    // Target of the JPQL constructor expressions, which cannot nest "new"
+    public VersionedUserDto(Long id, String name, String email, Boolean active, Long version) {
+        this(new UserDto(id, name, email, active), version);
+    }
+}
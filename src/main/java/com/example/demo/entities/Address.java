@@ -1,6 +1,8 @@
 package com.example.demo.entities;
 import lombok.*;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @ToString
 @Getter
@@ -10,9 +12,13 @@ import jakarta.persistence.*;
 @Builder
 @Entity
 @Table(name = "addresses")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "addresses")
 public class Address {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "addresses_id")
+    @TableGenerator(name = "addresses_id", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val", pkColumnValue = "addresses",
+            allocationSize = 50)
     private Long id;
     @Column(name="street", nullable = false)
     private String street;
@@ -22,7 +28,7 @@ public class Address {
     private String state;
     @Column(name="zip", nullable = false)
     private String zipCode;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     @ToString.Exclude
     private User user;
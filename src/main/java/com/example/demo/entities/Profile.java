@@ -3,14 +3,19 @@ package com.example.demo.entities;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDate;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "profiles", schema = "store")
+@Table(name = "profiles")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "profiles")
 public class Profile {
     @Id
     @Column(name = "id", nullable = false)
@@ -19,6 +24,7 @@ public class Profile {
     @MapsId
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
 
     @Lob
@@ -32,7 +38,7 @@ public class Profile {
     private LocalDate dateOfBirth;
 
     @ColumnDefault("'0'")
-    @Column(name = "loyalty_points", columnDefinition = "int UNSIGNED")
-    private Integer loyaltyPoints;
+    @Column(name = "loyalty_points")
+    private Long loyaltyPoints;
 
 }
\ No newline at end of file
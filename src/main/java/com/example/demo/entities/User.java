@@ -2,6 +2,8 @@ package com.example.demo.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,9 +16,13 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = "id_generators",
+            pkColumnName = "gen_name", valueColumnName = "next_val", pkColumnValue = "users",
+            allocationSize = 50)
     private Long id;
     @Column(nullable = false, name="name")
     private String name;
@@ -29,8 +35,15 @@ public class User {
     @Builder.Default
     private Boolean active = true;
 
+    // Left null on new users so Spring Data persists them; Hibernate starts it at 0
+    @Version
+    @Column(nullable = false, name="version")
+    private Long version;
+
     @OneToMany(mappedBy = "user", cascade = {CascadeType.PERSIST, CascadeType.REMOVE}, orphanRemoval = true)
     @Builder.Default
+    @ToString.Exclude
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users.addresses")
     private List<Address> addresses = new ArrayList<>();
 
     public void addAddress(Address address) {
@@ -41,7 +54,9 @@ public class User {
         addresses.remove(address);
         address.setUser(null);
     }
-    @OneToOne(mappedBy = "user", cascade = CascadeType.REMOVE)
-    private Profile profile;
 
+    // No inverse @OneToOne to Profile: Hibernate cannot lazy-load the mappedBy side,
+    // so it cost an extra select on every User load. Profile owns the association
+    // (shared primary key) and is removed by the ON DELETE CASCADE foreign key.
+    // Use ProfileRepository.findById(userId) when a profile is needed.
 }
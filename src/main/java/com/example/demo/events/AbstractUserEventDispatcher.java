@@ -0,0 +1,237 @@
+package com.example.demo.events;
+
+import com.example.demo.config.UserEventProperties;
+import com.example.demo.dtos.UserDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivery loop shared by the outbox dispatcher and the per-instance one
+ *
+ * A single thread reads a batch of events in id order, hands it to the subscribers and
+ * acknowledges it. A batch whose delivery throws is delivered again after the retry
+ * delay. Once it has failed maxAttempts times, its events are delivered one at a time:
+ * the ones that still fail are logged, counted in users.events.skipped and acknowledged
+ * as failed, so one bad event cannot hold back the events behind it.
+ *
+ * The thread sleeps until a local commit wakes it up or the poll interval passes.
+ */
+@Slf4j
+abstract class AbstractUserEventDispatcher {
+
+    static final String COLUMNS = "id, user_id, type, name, email, active, occurred_at";
+
+    static final RowMapper<UserEvent> EVENT_ROW = (rs, rowNum) -> new UserEvent(
+            rs.getLong("id"),
+            UserEventType.valueOf(rs.getString("type")),
+            new UserDto(rs.getLong("user_id"), rs.getString("name"), rs.getString("email"),
+                    rs.getObject("active", Boolean.class)),
+            rs.getLong("occurred_at"));
+
+    protected final UserEventProperties properties;
+    private final String name;
+    private final Semaphore wakeUps = new Semaphore(0);
+
+    private final Counter dispatched;
+    private final Counter failures;
+    private final Counter skipped;
+    private final DistributionSummary batchSizes;
+    private final Timer deliveries;
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread thread;
+    // First event id of the batch that keeps failing, and how often it failed
+    private long failingFrom = -1;
+    private int failedAttempts;
+
+    protected AbstractUserEventDispatcher(String name, UserEventProperties properties, MeterRegistry registry) {
+        this.name = name;
+        this.properties = properties;
+        this.dispatched = Counter.builder("users.events.dispatched")
+                .description("User change events delivered to every subscriber")
+                .tag("dispatcher", name)
+                .register(registry);
+        this.failures = Counter.builder("users.events.failures")
+                .description("Batches that a subscriber failed and that will be delivered again")
+                .tag("dispatcher", name)
+                .register(registry);
+        this.skipped = Counter.builder("users.events.skipped")
+                .description("Events given up on after a subscriber kept failing them")
+                .tag("dispatcher", name)
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("users.events.batch.size")
+                .description("Events per delivered batch")
+                .tag("dispatcher", name)
+                .register(registry);
+        this.deliveries = Timer.builder("users.events.delivery")
+                .description("Time for all subscribers to handle one batch")
+                .tag("dispatcher", name)
+                .register(registry);
+        Gauge.builder("users.events.lag", lagMillis, AtomicLong::get)
+                .description("Age in ms of the oldest event in the last batch when it was delivered")
+                .tag("dispatcher", name)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    /**
+     * The next events to deliver, in id order
+     */
+    protected abstract List<UserEvent> nextBatch();
+
+    /**
+     * Hand events to every subscriber
+     */
+    protected abstract void deliver(List<UserEvent> events);
+
+    /**
+     * Mark a delivered batch done
+     *
+     * @param failed events of the batch that were given up on, usually none
+     */
+    protected abstract void acknowledge(List<UserEvent> batch, List<UserEvent> failed);
+
+    /**
+     * Called when there was nothing more to deliver, before going to sleep
+     */
+    protected void idle() {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "user-events-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        log.info("User event dispatcher '{}' started", name);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Dispatch now rather than at the next poll
+     */
+    public void wakeUp() {
+        wakeUps.release();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (dispatchBatch() >= properties.getBatchSize()) {
+                    // Probably more waiting
+                    continue;
+                }
+                idle();
+                awaitWakeUp(properties.getPollInterval().toMillis());
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("User event delivery '{}' failed, retrying in {}: {}", name, properties.getRetryDelay(), e.toString());
+                // Not cut short by new commits: the failed batch comes first anyway
+                pause(properties.getRetryDelay().toMillis());
+            }
+        }
+    }
+
+    /**
+     * Deliver the next batch and acknowledge it
+     *
+     * @return number of events delivered
+     */
+    private int dispatchBatch() {
+        List<UserEvent> batch = nextBatch();
+        if (batch.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        List<UserEvent> events = Collections.unmodifiableList(batch);
+        long firstId = batch.get(0).id();
+        long startedAt = System.nanoTime();
+        List<UserEvent> failed = List.of();
+        if (firstId == failingFrom && failedAttempts >= properties.getMaxAttempts()) {
+            failed = deliverEach(events);
+        } else {
+            try {
+                deliver(events);
+            } catch (RuntimeException e) {
+                if (firstId != failingFrom) {
+                    failingFrom = firstId;
+                    failedAttempts = 0;
+                }
+                failedAttempts++;
+                throw e;
+            }
+        }
+        deliveries.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+
+        acknowledge(batch, failed);
+        failingFrom = -1;
+        long now = System.currentTimeMillis();
+        dispatched.increment(batch.size() - failed.size());
+        batchSizes.record(batch.size());
+        lagMillis.set(now - batch.get(0).occurredAt());
+        return batch.size();
+    }
+
+    /**
+     * Deliver a batch that keeps failing event by event
+     *
+     * @return the events that still failed
+     */
+    private List<UserEvent> deliverEach(List<UserEvent> events) {
+        List<UserEvent> failed = new ArrayList<>();
+        for (UserEvent event : events) {
+            try {
+                deliver(List.of(event));
+            } catch (RuntimeException e) {
+                failed.add(event);
+                skipped.increment();
+                log.error("User event {} ({} of user {}) failed {} deliveries, skipping it",
+                        event.id(), event.type(), event.user().getId(), properties.getMaxAttempts() + 1, e);
+            }
+        }
+        return failed;
+    }
+
+    private void awaitWakeUp(long millis) {
+        try {
+            if (wakeUps.tryAcquire(millis, TimeUnit.MILLISECONDS)) {
+                // Commits that arrived meanwhile are all served by the next batch
+                wakeUps.drainPermits();
+            }
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+
+    private void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+}
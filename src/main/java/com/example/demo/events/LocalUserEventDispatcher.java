@@ -0,0 +1,96 @@
+package com.example.demo.events;
+
+import com.example.demo.config.UserEventProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Delivers every committed user event to the LocalUserEventSubscribers of this instance
+ *
+ * Runs on every instance, whether or not it runs the outbox dispatcher, and leaves
+ * published_at alone: each instance follows user_events with a cursor of its own, the
+ * highest event id it has read, starting from the newest event when the context starts
+ * (the search index is built from the database after that).
+ *
+ * Ids are taken when a transaction inserts its event but become visible when it commits,
+ * so a newer id can show up first. An id the cursor passes without having seen it is
+ * looked up again with every batch until it shows up or gapTimeout passes (the transaction
+ * was rolled back, or the id was never used).
+ */
+@Component
+public class LocalUserEventDispatcher extends AbstractUserEventDispatcher {
+
+    private static final int MAX_GAPS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<LocalUserEventSubscriber> subscribers;
+
+    // Only touched by the dispatcher thread after init
+    private long cursor;
+    // Ids passed over but not seen yet -> when to stop looking for them
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+
+    public LocalUserEventDispatcher(JdbcTemplate jdbcTemplate, List<LocalUserEventSubscriber> subscribers,
+                                    UserEventProperties properties, MeterRegistry registry) {
+        super("local", properties, registry);
+        this.jdbcTemplate = jdbcTemplate;
+        this.subscribers = subscribers;
+    }
+
+    @PostConstruct
+    void init() {
+        cursor = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from user_events", Long.class);
+    }
+
+    @Override
+    protected List<UserEvent> nextBatch() {
+        List<UserEvent> batch = new ArrayList<>();
+        if (!gaps.isEmpty()) {
+            long now = System.currentTimeMillis();
+            gaps.values().removeIf(deadline -> deadline < now);
+            List<Long> ids = new ArrayList<>(gaps.keySet());
+            for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+                List<Long> chunk = ids.subList(from, Math.min(from + properties.getBatchSize(), ids.size()));
+                batch.addAll(jdbcTemplate.query("select " + COLUMNS + " from user_events where id in ("
+                        + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")", EVENT_ROW, chunk.toArray()));
+            }
+        }
+        batch.addAll(jdbcTemplate.query("select " + COLUMNS + " from user_events where id > ? order by id limit ?",
+                EVENT_ROW, cursor, properties.getBatchSize()));
+        // Late commits merge in by id: a user's later events always have newer ids (row locks)
+        batch.sort(Comparator.comparingLong(UserEvent::id));
+        return batch;
+    }
+
+    @Override
+    protected void deliver(List<UserEvent> events) {
+        for (LocalUserEventSubscriber subscriber : subscribers) {
+            subscriber.onEvents(events);
+        }
+    }
+
+    @Override
+    protected void acknowledge(List<UserEvent> batch, List<UserEvent> failed) {
+        // Failed events are only counted: this instance's state is rebuilt on restart
+        long deadline = System.currentTimeMillis() + properties.getGapTimeout().toMillis();
+        for (UserEvent event : batch) {
+            long id = event.id();
+            if (id <= cursor) {
+                gaps.remove(id);
+                continue;
+            }
+            for (long missing = cursor + 1; missing < id && gaps.size() < MAX_GAPS; missing++) {
+                gaps.put(missing, deadline);
+            }
+            cursor = id;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.events;
+
+import java.util.List;
+
+/**
+ * Consumer of user change events that keeps state of this instance, such as caches and
+ * indexes; every bean implementing it is subscribed
+ *
+ * Every instance delivers every committed event to its own subscribers, on the single
+ * LocalUserEventDispatcher thread, in id order, so the events of one user are seen in the
+ * order they were committed. Delivery is at least once: if any subscriber throws, the whole
+ * batch is delivered again after the retry delay, so handling an event twice must be
+ * harmless. An event still failing after maxAttempts is skipped.
+ */
+public interface LocalUserEventSubscriber {
+
+    void onEvents(List<UserEvent> events);
+}
@@ -0,0 +1,36 @@
+package com.example.demo.events;
+
+import com.example.demo.services.UserEmailCache;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts email -> id entries of users whose email may have changed or who were deleted
+ *
+ * Events carry the email after the change, not the one a cached entry may still hold,
+ * so entries are evicted by user id. Login also re-checks the email of the row it loads,
+ * so an entry is never trusted while this eviction is pending.
+ */
+@Component
+@AllArgsConstructor
+public class UserEmailCacheSubscriber implements LocalUserEventSubscriber {
+
+    private final UserEmailCache userEmailCache;
+
+    @Override
+    public void onEvents(List<UserEvent> events) {
+        Set<Long> userIds = new HashSet<>();
+        for (UserEvent event : events) {
+            if (event.type() == UserEventType.UPDATED || event.type() == UserEventType.DELETED) {
+                userIds.add(event.user().getId());
+            }
+        }
+        if (!userIds.isEmpty()) {
+            userEmailCache.invalidateUsers(userIds);
+        }
+    }
+}
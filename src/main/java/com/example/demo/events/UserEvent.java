@@ -0,0 +1,14 @@
+package com.example.demo.events;
+
+import com.example.demo.dtos.UserDto;
+
+/**
+ * One committed change to a user, as delivered to subscribers
+ *
+ * @param id outbox row id; events of one user are delivered in increasing id order
+ * @param user the user after the change (before it, for DELETED). Bulk status changes
+ *             only carry the id and the active flag; name and email are null.
+ * @param occurredAt epoch millis when the change was written
+ */
+public record UserEvent(long id, UserEventType type, UserDto user, long occurredAt) {
+}
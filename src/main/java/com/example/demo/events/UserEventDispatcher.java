@@ -0,0 +1,91 @@
+package com.example.demo.events;
+
+import com.example.demo.config.UserEventProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the user_events outbox to every UserEventSubscriber, on one instance only
+ *
+ * Reads unpublished events in id order, a batch at a time, hands the batch to each
+ * subscriber in turn and then stamps the rows published_at. Being the only writer keeps
+ * the events of a user in commit order. Events given up on after maxAttempts are stamped
+ * failed_at as well, and kept past the retention period so they can be inspected and
+ * delivered again (clear both columns).
+ *
+ * Published rows older than the retention period are purged every few minutes.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.users.events", name = "dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class UserEventDispatcher extends AbstractUserEventDispatcher {
+
+    private static final long PURGE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<UserEventSubscriber> subscribers;
+    private long nextPurge;
+
+    public UserEventDispatcher(JdbcTemplate jdbcTemplate, List<UserEventSubscriber> subscribers,
+                               UserEventProperties properties, MeterRegistry registry) {
+        super("outbox", properties, registry);
+        this.jdbcTemplate = jdbcTemplate;
+        this.subscribers = subscribers;
+    }
+
+    @Override
+    protected List<UserEvent> nextBatch() {
+        return jdbcTemplate.query("select " + COLUMNS + " from user_events "
+                + "where published_at is null order by id limit ?", EVENT_ROW, properties.getBatchSize());
+    }
+
+    @Override
+    protected void deliver(List<UserEvent> events) {
+        for (UserEventSubscriber subscriber : subscribers) {
+            subscriber.onEvents(events);
+        }
+    }
+
+    @Override
+    protected void acknowledge(List<UserEvent> batch, List<UserEvent> failed) {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("update user_events set published_at = ? where id in ("
+                + placeholders(batch.size()) + ")", idsWithTime(now, batch));
+        if (!failed.isEmpty()) {
+            jdbcTemplate.update("update user_events set failed_at = ? where id in ("
+                    + placeholders(failed.size()) + ")", idsWithTime(now, failed));
+        }
+    }
+
+    @Override
+    protected void idle() {
+        long now = System.currentTimeMillis();
+        if (now < nextPurge) {
+            return;
+        }
+        nextPurge = now + PURGE_INTERVAL_MILLIS;
+        int purged = jdbcTemplate.update("delete from user_events where published_at < ? and failed_at is null",
+                now - properties.getRetention().toMillis());
+        log.debug("Purged {} published user events", purged);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] idsWithTime(long now, List<UserEvent> events) {
+        Object[] args = new Object[events.size() + 1];
+        args[0] = now;
+        for (int i = 0; i < events.size(); i++) {
+            args[i + 1] = events.get(i).id();
+        }
+        return args;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.events;
+
+import com.example.demo.dtos.UserDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes user change events to the user_events outbox
+ *
+ * Events are inserted in the caller's transaction, so they commit or roll back with the
+ * change they describe; calling without a transaction fails. After commit the dispatchers
+ * of this instance are woken up instead of waiting for their next poll.
+ */
+@Component
+public class UserEventPublisher {
+
+    private static final String INSERT = "insert into user_events (user_id, type, name, email, active, occurred_at) "
+            + "values (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<AbstractUserEventDispatcher> dispatchers;
+    private final Counter published;
+
+    public UserEventPublisher(JdbcTemplate jdbcTemplate, ObjectProvider<AbstractUserEventDispatcher> dispatchers,
+                              MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dispatchers = dispatchers;
+        this.published = Counter.builder("users.events.published")
+                .description("User change events committed to the outbox")
+                .register(registry);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(UserEventType type, UserDto user) {
+        publishAll(type, List.of(user));
+    }
+
+    /**
+     * Record the same kind of change for several users, in one JDBC batch
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(UserEventType type, Collection<UserDto> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (UserDto user : users) {
+            rows.add(new Object[]{user.getId(), type.name(), user.getName(), user.getEmail(), user.getActive(), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+
+        int count = rows.size();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                published.increment(count);
+                dispatchers.forEach(AbstractUserEventDispatcher::wakeUp);
+            }
+        });
+    }
+
+    /**
+     * Record a status change for users known by id only (bulk updates)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishStatusChange(Collection<Long> userIds, boolean active) {
+        List<UserDto> users = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            users.add(new UserDto(userId, null, null, active));
+        }
+        publishAll(active ? UserEventType.ACTIVATED : UserEventType.DEACTIVATED, users);
+    }
+}
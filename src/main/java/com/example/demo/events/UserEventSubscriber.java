@@ -0,0 +1,19 @@
+package com.example.demo.events;
+
+import java.util.List;
+
+/**
+ * Consumer of the user_events outbox, for changes that must be handled once across all
+ * instances (relaying to other systems); every bean implementing it is subscribed
+ *
+ * Batches arrive on the single dispatcher thread of the one instance running
+ * UserEventDispatcher, in outbox order, so the events of one user are seen in the order
+ * they were committed. Delivery is at least once: if any subscriber throws, the whole batch
+ * is delivered again to every subscriber after the retry delay, so handling an event twice
+ * must be harmless. An event still failing after maxAttempts is skipped and stamped
+ * failed_at. State held in memory belongs in a LocalUserEventSubscriber instead.
+ */
+public interface UserEventSubscriber {
+
+    void onEvents(List<UserEvent> events);
+}
@@ -0,0 +1,13 @@
+package com.example.demo.events;
+
+/**
+ * Kinds of user change recorded in the user_events outbox
+ */
+public enum UserEventType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    ACTIVATED,
+    DEACTIVATED,
+    PASSWORD_CHANGED
+}
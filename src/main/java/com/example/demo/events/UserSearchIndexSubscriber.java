@@ -0,0 +1,52 @@
+package com.example.demo.events;
+
+import com.example.demo.services.UserSearchIndex;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the in-memory search index in step with committed user changes
+ *
+ * Every event is idempotent against the index (put, remove, set the flag), so a batch
+ * delivered again is harmless. Consecutive status changes, as bulk updates produce,
+ * are applied with one setActive call.
+ */
+@Component
+@AllArgsConstructor
+public class UserSearchIndexSubscriber implements LocalUserEventSubscriber {
+
+    private final UserSearchIndex userSearchIndex;
+
+    @Override
+    public void onEvents(List<UserEvent> events) {
+        List<Long> statusRun = new ArrayList<>();
+        UserEventType statusType = null;
+        for (UserEvent event : events) {
+            UserEventType type = event.type();
+            boolean statusChange = type == UserEventType.ACTIVATED || type == UserEventType.DEACTIVATED;
+            if (statusType != null && type != statusType) {
+                userSearchIndex.setActive(statusRun, statusType == UserEventType.ACTIVATED);
+                statusRun.clear();
+                statusType = null;
+            }
+            if (statusChange) {
+                statusRun.add(event.user().getId());
+                statusType = type;
+                continue;
+            }
+            switch (type) {
+                case CREATED, UPDATED -> userSearchIndex.put(event.user());
+                case DELETED -> userSearchIndex.remove(event.user().getId());
+                default -> {
+                    // Password changes don't touch indexed fields
+                }
+            }
+        }
+        if (statusType != null) {
+            userSearchIndex.setActive(statusRun, statusType == UserEventType.ACTIVATED);
+        }
+    }
+}
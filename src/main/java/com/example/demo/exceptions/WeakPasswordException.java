@@ -1,11 +1,25 @@
 package com.example.demo.exceptions;
 
+import java.util.List;
+
 /**
  * Exception thrown when password validation fails
+ * Carries every violated rule; the message joins them
  */
 public class WeakPasswordException extends RuntimeException {
+    private final List<String> violations;
+
     public WeakPasswordException(String message) {
         super(message);
+        this.violations = List.of(message);
     }
-}
 
+    public WeakPasswordException(List<String> violations) {
+        super(String.join("; ", violations));
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<String> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.demo.loyalty;
+
+/**
+ * Points to add to a user's balance, with the reason recorded in the ledger
+ */
+public record LoyaltyAward(long userId, String reason, long points) {
+}
@@ -0,0 +1,108 @@
+package com.example.demo.loyalty;
+
+import com.example.demo.dtos.LoyaltyLedgerEntryDto;
+import com.example.demo.entities.Profile;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Loyalty balances (profiles.loyalty_points) and their history (loyalty_points_ledger)
+ *
+ * Balances change only through an atomic "loyalty_points = loyalty_points + ?" UPDATE:
+ * no read-modify-write, so concurrent awards to one user hold the row lock for a single
+ * statement instead of a whole load-and-save. A user without a profile row gets one.
+ *
+ * The statements bypass Hibernate, so the profiles changed are evicted from the
+ * second-level cache after each commit.
+ */
+@Component
+@AllArgsConstructor
+public class LoyaltyLedger {
+
+    private static final String INCREMENT =
+            "update profiles set loyalty_points = coalesce(loyalty_points, 0) + ? where id = ?";
+    private static final String CREATE_PROFILE = "insert into profiles (id, loyalty_points) values (?, ?)";
+    private static final String INSERT_ENTRY =
+            "insert into loyalty_points_ledger (user_id, points, reason, created_at) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Add the awards to the balances and the ledger in one transaction
+     *
+     * Users are updated in id order, so concurrent calls always take row locks in the
+     * same order and cannot deadlock each other.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if a user does not
+     *         exist; nothing is applied then
+     */
+    public void apply(List<LoyaltyAward> awards) {
+        Map<Long, Long> pointsByUser = new TreeMap<>();
+        for (LoyaltyAward award : awards) {
+            pointsByUser.merge(award.userId(), award.points(), Long::sum);
+        }
+        long now = System.currentTimeMillis();
+        transactionTemplate.executeWithoutResult(tx -> {
+            List<Object[]> increments = new ArrayList<>(pointsByUser.size());
+            pointsByUser.forEach((userId, points) -> increments.add(new Object[]{points, userId}));
+            int[] counts = jdbcTemplate.batchUpdate(INCREMENT, increments);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    createProfile((Long) increments.get(i)[1], (Long) increments.get(i)[0]);
+                }
+            }
+            List<Object[]> entries = new ArrayList<>(awards.size());
+            for (LoyaltyAward award : awards) {
+                entries.add(new Object[]{award.userId(), award.points(), award.reason(), now});
+            }
+            jdbcTemplate.batchUpdate(INSERT_ENTRY, entries);
+        });
+        Cache cache = entityManagerFactory.getCache();
+        pointsByUser.keySet().forEach(userId -> cache.evict(Profile.class, userId));
+    }
+
+    /**
+     * Balance of a user; users without a profile have 0
+     *
+     * @return the balance, or empty if the user doesn't exist
+     */
+    public Optional<Long> findBalance(long userId) {
+        return jdbcTemplate.query("select coalesce(p.loyalty_points, 0) from users u "
+                        + "left join profiles p on p.id = u.id where u.id = ?",
+                (rs, rowNum) -> rs.getLong(1), userId).stream().findFirst();
+    }
+
+    /**
+     * Latest ledger entries of a user, newest first
+     */
+    public List<LoyaltyLedgerEntryDto> findHistory(long userId, int limit) {
+        return jdbcTemplate.query("select points, reason, created_at from loyalty_points_ledger "
+                        + "where user_id = ? order by id desc limit ?",
+                (rs, rowNum) -> new LoyaltyLedgerEntryDto(rs.getLong("points"), rs.getString("reason"),
+                        Instant.ofEpochMilli(rs.getLong("created_at"))),
+                userId, limit);
+    }
+
+    private void createProfile(long userId, long points) {
+        try {
+            jdbcTemplate.update(CREATE_PROFILE, userId, points);
+        } catch (DuplicateKeyException e) {
+            // Another award created it since the UPDATE found nothing
+            jdbcTemplate.update(INCREMENT, points, userId);
+        }
+    }
+}
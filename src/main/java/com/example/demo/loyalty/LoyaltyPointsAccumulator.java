@@ -0,0 +1,265 @@
+package com.example.demo.loyalty;
+
+import com.example.demo.config.LoyaltyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind loyalty awards (app.loyalty.write-behind=true)
+ *
+ * award() adds the points to a per-user, per-reason LongAdder, whose striped cells let
+ * any number of threads award to the same user without contending on one memory word,
+ * let alone a row lock. Every flush interval one thread takes the sums and hands them
+ * to the LoyaltyLedger, batch-size sums per transaction: a burst of awards to one user
+ * becomes one UPDATE and one ledger row per reason. Sums that fail to write go back in
+ * and are retried at the next flush; sums for users deleted meanwhile are dropped.
+ *
+ * Awards go to one of two epochs, each with its own map. A flush switches new awards to
+ * the other epoch and waits for the awards still adding to the old one, which register
+ * on per-thread counter stripes, before reading it: no award is lost or counted twice,
+ * and a user's entry lives only as long as the user keeps getting awards.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.loyalty", name = "write-behind", havingValue = "true")
+@Slf4j
+public class LoyaltyPointsAccumulator {
+
+    private final LoyaltyLedger ledger;
+    private final long flushIntervalNanos;
+    private final int batchSize;
+    private final Epoch[] epochs;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failures;
+
+    private volatile Epoch current;
+    private volatile boolean running;
+    private volatile Thread flusher;
+
+    public LoyaltyPointsAccumulator(LoyaltyLedger ledger, LoyaltyProperties properties, MeterRegistry registry) {
+        this.ledger = ledger;
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.batchSize = Math.max(1, properties.getBatchSize());
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 4 - 1)) << 1;
+        this.epochs = new Epoch[]{new Epoch(stripes), new Epoch(stripes)};
+        this.current = epochs[0];
+        this.written = Counter.builder("loyalty.points.flushed")
+                .description("Accumulated awards written to the ledger, one per user and reason")
+                .register(registry);
+        this.dropped = Counter.builder("loyalty.points.dropped")
+                .description("Accumulated awards discarded because the user no longer exists")
+                .register(registry);
+        this.failures = Counter.builder("loyalty.flush.failures")
+                .description("Failed write-behind transactions, retried at the next flush")
+                .register(registry);
+        Gauge.builder("loyalty.pending.users", this, accumulator -> accumulator.current.users.size())
+                .description("Users with write-behind awards in memory")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, "loyalty-points-flusher");
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = flusher;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public void award(long userId, String reason, long points) {
+        while (true) {
+            Epoch epoch = current;
+            int stripe = epoch.enter();
+            try {
+                // Still current once registered: a flush of this epoch now waits for the add
+                if (epoch == current) {
+                    epoch.add(userId, reason, points);
+                    return;
+                }
+            } finally {
+                epoch.exit(stripe);
+            }
+        }
+    }
+
+    /**
+     * Points awarded to a user that are not written yet, not counting a batch being written
+     */
+    public long getPending(long userId) {
+        return epochs[0].sum(userId) + epochs[1].sum(userId);
+    }
+
+    synchronized void flush() {
+        Epoch flushing = current;
+        current = flushing == epochs[0] ? epochs[1] : epochs[0];
+        // From here on the old epoch belongs to this thread alone
+        flushing.awaitWriters();
+        List<LoyaltyAward> awards = new ArrayList<>();
+        for (UserPoints entry : flushing.users.values()) {
+            entry.drainTo(awards);
+        }
+        flushing.users.clear();
+        boolean failed = false;
+        for (int from = 0; from < awards.size(); from += batchSize) {
+            List<LoyaltyAward> batch = awards.subList(from, Math.min(from + batchSize, awards.size()));
+            if (failed || !write(batch)) {
+                // The database is most likely unavailable: put the rest back without trying
+                failed = true;
+                batch.forEach(award -> award(award.userId(), award.reason(), award.points()));
+            }
+        }
+    }
+
+    private boolean write(List<LoyaltyAward> batch) {
+        try {
+            ledger.apply(batch);
+            written.increment(batch.size());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Most likely a user deleted since the award: write one sum at a time to find it
+            writeEach(batch);
+            return true;
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("Writing {} loyalty awards failed, retrying at the next flush: {}", batch.size(), e.toString());
+            return false;
+        }
+    }
+
+    private void writeEach(List<LoyaltyAward> batch) {
+        for (LoyaltyAward award : batch) {
+            try {
+                ledger.apply(List.of(award));
+                written.increment();
+            } catch (DataIntegrityViolationException e) {
+                dropped.increment();
+                log.warn("Dropping {} loyalty points for user {}: {}", award.points(), award.userId(), e.toString());
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Writing loyalty awards of user {} failed: {}", award.userId(), e.toString());
+                award(award.userId(), award.reason(), award.points());
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            flush();
+        }
+        // Shutting down: one more attempt for whatever is left
+        flush();
+    }
+
+    private static final class Epoch {
+
+        // Counters 128 bytes apart, so threads on different stripes don't share a cache line
+        private static final int PADDING = 16;
+
+        final ConcurrentHashMap<Long, UserPoints> users = new ConcurrentHashMap<>();
+        private final AtomicLongArray writers;
+        private final int mask;
+
+        Epoch(int stripes) {
+            this.writers = new AtomicLongArray(stripes * PADDING);
+            this.mask = stripes - 1;
+        }
+
+        int enter() {
+            long id = Thread.currentThread().threadId();
+            int stripe = (Long.hashCode(id * 0x9E3779B97F4A7C15L) & mask) * PADDING;
+            writers.getAndIncrement(stripe);
+            return stripe;
+        }
+
+        void exit(int stripe) {
+            writers.getAndDecrement(stripe);
+        }
+
+        /**
+         * Wait for every award that registered on this epoch; new ones no longer do
+         */
+        void awaitWriters() {
+            for (int stripe = 0; stripe < writers.length(); stripe += PADDING) {
+                while (writers.get(stripe) != 0) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+
+        void add(long userId, String reason, long points) {
+            UserPoints entry = users.get(userId);
+            if (entry == null) {
+                entry = users.computeIfAbsent(userId, UserPoints::new);
+            }
+            entry.add(reason, points);
+        }
+
+        long sum(long userId) {
+            UserPoints entry = users.get(userId);
+            return entry == null ? 0 : entry.sum();
+        }
+    }
+
+    private static final class UserPoints {
+
+        final long userId;
+        final ConcurrentHashMap<String, LongAdder> byReason = new ConcurrentHashMap<>(4);
+
+        UserPoints(long userId) {
+            this.userId = userId;
+        }
+
+        void add(String reason, long points) {
+            LongAdder adder = byReason.get(reason);
+            if (adder == null) {
+                adder = byReason.computeIfAbsent(reason, key -> new LongAdder());
+            }
+            adder.add(points);
+        }
+
+        long sum() {
+            long sum = 0;
+            for (LongAdder adder : byReason.values()) {
+                sum += adder.sum();
+            }
+            return sum;
+        }
+
+        void drainTo(List<LoyaltyAward> awards) {
+            byReason.forEach((reason, adder) -> {
+                long points = adder.sum();
+                if (points != 0) {
+                    awards.add(new LoyaltyAward(userId, reason, points));
+                }
+            });
+        }
+    }
+}
@@ -5,11 +5,15 @@ import com.example.demo.dtos.UpdateUserRequest;
 import com.example.demo.dtos.UserDto;
 import com.example.demo.entities.User;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface UserMapper {
     UserDto toDto(User user);
+    // The version belongs to Hibernate (optimistic locking), never to a request
+    @Mapping(target = "version", ignore = true)
     User toEntity(RegisterUserRequest request);
+    @Mapping(target = "version", ignore = true)
     void update(UpdateUserRequest request, @MappingTarget User user);
 }
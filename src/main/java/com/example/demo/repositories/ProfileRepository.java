@@ -4,4 +4,4 @@ import com.example.demo.entities.Profile;
 import org.springframework.data.repository.CrudRepository;
 
 public interface ProfileRepository extends CrudRepository<Profile, Long> {
-}
\ No newline at end of file
+}
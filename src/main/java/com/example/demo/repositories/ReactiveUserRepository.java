@@ -0,0 +1,102 @@
+package com.example.demo.repositories;
+
+import com.example.demo.config.ReactiveDatabaseProperties;
+import com.example.demo.dtos.AddressDto;
+import com.example.demo.dtos.UserDto;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Non-blocking read access to users and addresses over R2DBC
+ *
+ * Coexists with the JPA UserRepository: it has its own connection pool and reads the
+ * same tables, returning DTOs only (no entities, no second-level cache). The pool is
+ * owned here rather than exposed as a ConnectionFactory bean, which would make
+ * Spring Boot back off from creating the JDBC DataSource.
+ */
+@Repository
+public class ReactiveUserRepository {
+
+    private static final Map<String, String> ORDER_BY = Map.of(
+            "id", "id",
+            "name", "name, id",
+            "email", "email, id");
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+    private final int fetchSize;
+
+    public ReactiveUserRepository(ReactiveDatabaseProperties properties) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(properties.getUrl()).mutate();
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .initialSize(0)
+                .maxSize(properties.getMaxSize())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxAcquireTime(properties.getMaxAcquireTime())
+                .build());
+        this.client = DatabaseClient.create(pool);
+        this.fetchSize = properties.getFetchSize();
+    }
+
+    public Mono<UserDto> findDtoById(Long id) {
+        return client.sql("select id, name, email, active from users where id = :id")
+                .bind("id", id)
+                .map(ReactiveUserRepository::toUserDto)
+                .one();
+    }
+
+    public Flux<AddressDto> findAddressesByUserId(Long userId) {
+        return client.sql("select id, street, city, state, zip from addresses where user_id = :userId order by id")
+                .bind("userId", userId)
+                .map(ReactiveUserRepository::toAddressDto)
+                .all();
+    }
+
+    /**
+     * Every user in the given order, fetched in batches of fetchSize as the subscriber requests them
+     *
+     * @param sort "name", "email" or "id"
+     * @throws IllegalArgumentException if sort is not supported
+     */
+    public Flux<UserDto> streamAll(String sort) {
+        String orderBy = ORDER_BY.get(sort);
+        if (orderBy == null) {
+            return Flux.error(new IllegalArgumentException("Unsupported sort: " + sort));
+        }
+        return client.sql("select id, name, email, active from users order by " + orderBy)
+                .filter((statement, next) -> next.execute(statement.fetchSize(fetchSize)))
+                .map(ReactiveUserRepository::toUserDto)
+                .all();
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.dispose();
+    }
+
+    private static UserDto toUserDto(Readable row) {
+        return new UserDto(row.get("id", Long.class), row.get("name", String.class),
+                row.get("email", String.class), row.get("active", Boolean.class));
+    }
+
+    private static AddressDto toAddressDto(Readable row) {
+        return new AddressDto(row.get("id", Long.class), row.get("street", String.class),
+                row.get("city", String.class), row.get("state", String.class), row.get("zip", String.class));
+    }
+}
@@ -1,17 +1,169 @@
 package com.example.demo.repositories;
 
+import com.example.demo.dtos.UserDto;
+import com.example.demo.dtos.UserExportRow;
+import com.example.demo.dtos.UserListVersion;
+import com.example.demo.dtos.VersionedUserDto;
 import com.example.demo.entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    /**
+     * Load a user entity for modification
+     * Not read-only like the inherited default: with replica routing a read-only lookup
+     * would load a possibly stale row for an update and put it in the second-level cache
+     */
+    @Override
+    @Transactional
+    Optional<User> findById(Long id);
+
     /**
      * Find user by email address
      * Used for login authentication
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Which of the given emails are already taken
+     * Used by bulk import to reject duplicates before flushing a chunk
+     */
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /*
+     * Read-only projections
+     * These select only id, name, email and active straight into UserDto, so no
+     * managed User is created: no dirty-checking snapshot, no addresses/profile fetch
+     * Cacheable ones are invalidated by Hibernate whenever the users table is written
+     */
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.demo.dtos.UserDto(u.id, u.name, u.email, u.active) from User u where u.id = :id")
+    Optional<UserDto> findDtoById(@Param("id") Long id);
+
+    /*
+     * Versions for conditional requests
+     * Enough to answer If-None-Match without reading or serializing the user data
+     */
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.demo.dtos.VersionedUserDto(u.id, u.name, u.email, u.active, u.version) from User u where u.id = :id")
+    Optional<VersionedUserDto> findVersionedDtoById(@Param("id") Long id);
+
+    @Query("select new com.example.demo.dtos.VersionedUserDto(u.id, u.name, u.email, u.active, u.version) from User u")
+    List<VersionedUserDto> findAllVersionedDtos(Sort sort);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.demo.dtos.UserListVersion(count(u), coalesce(max(u.id), 0L), " +
+            "coalesce(sum(u.id), 0L), coalesce(sum(u.version), 0L)) from User u")
+    UserListVersion findListVersion();
+
+    /*
+     * Set-based status changes
+     * One UPDATE per call instead of load-and-save per user. Hibernate evicts the
+     * users cache region on bulk updates, and clearAutomatically drops stale managed copies.
+     * Bulk updates bypass @Version, so they bump the version themselves.
+     */
+
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select u.id from User u where u.id in :ids and u.active = :active")
+    List<Long> findIdsInState(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.active = :active, u.version = u.version + 1 where u.id in :ids and u.active <> :active")
+    int updateActiveByIds(@Param("ids") Collection<Long> ids, @Param("active") boolean active);
+
+    @Query("select count(u) from User u where u.email like :emailPattern escape '!' and u.active = :active")
+    long countByEmailLikeInState(@Param("emailPattern") String emailPattern, @Param("active") boolean active);
+
+    @Query("select u.id from User u where u.email like :emailPattern escape '!' and u.active = :active")
+    List<Long> findIdsByEmailLikeInState(@Param("emailPattern") String emailPattern, @Param("active") boolean active);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.active = :active, u.version = u.version + 1 where u.email like :emailPattern escape '!' and u.active <> :active")
+    int updateActiveByEmailLike(@Param("emailPattern") String emailPattern, @Param("active") boolean active);
+
+    /**
+     * Keyset page ordered by id: rows strictly after the given id
+     * Only the page size is passed through the Pageable, never an offset
+     */
+    @Query("select new com.example.demo.dtos.UserDto(u.id, u.name, u.email, u.active) from User u where u.id > :afterId order by u.id")
+    List<UserDto> findPageOrderById(@Param("afterId") long afterId, Pageable page);
+
+    /**
+     * First keyset page ordered by (name, id)
+     * Cached: it is the default admin list page
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.example.demo.dtos.UserDto(u.id, u.name, u.email, u.active) from User u order by u.name, u.id")
+    List<UserDto> findFirstPageOrderByName(Pageable page);
+
+    /**
+     * Keyset page ordered by (name, id): rows strictly after the given (name, id) pair
+     */
+    @Query("select new com.example.demo.dtos.UserDto(u.id, u.name, u.email, u.active) from User u where u.name > :afterName or (u.name = :afterName and u.id > :afterId) order by u.name, u.id")
+    List<UserDto> findPageOrderByName(@Param("afterName") String afterName,
+                                      @Param("afterId") long afterId,
+                                      Pageable page);
+
+    /**
+     * First keyset page ordered by (email, id)
+     */
+    @Query("select new com.example.demo.dtos.UserDto(u.id, u.name, u.email, u.active) from User u order by u.email, u.id")
+    List<UserDto> findFirstPageOrderByEmail(Pageable page);
+
+    /**
+     * Keyset page ordered by (email, id): rows strictly after the given (email, id) pair
+     */
+    @Query("select new com.example.demo.dtos.UserDto(u.id, u.name, u.email, u.active) from User u where u.email > :afterEmail or (u.email = :afterEmail and u.id > :afterId) order by u.email, u.id")
+    List<UserDto> findPageOrderByEmail(@Param("afterEmail") String afterEmail,
+                                       @Param("afterId") long afterId,
+                                       Pageable page);
+
+    /**
+     * Row count estimate from InnoDB table statistics, without scanning the table
+     */
+    @Query(value = "select table_rows from information_schema.tables where table_schema = database() and table_name = 'users'",
+            nativeQuery = true)
+    Long estimateCount();
+
+    /**
+     * Forward-only stream over all users, read in fetch-size chunks
+     * The caller must hold a transaction open and close the stream
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.demo.dtos.UserDto(u.id, u.name, u.email, u.active) from User u")
+    Stream<UserDto> streamAll(Sort sort);
+
+    /**
+     * Forward-only stream of every user joined with its addresses, ordered by user id
+     * so that rows of one user are adjacent. The caller must hold a transaction open
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.demo.dtos.UserExportRow(u.id, u.name, u.email, u.active, " +
+            "a.id, a.street, a.city, a.state, a.zipCode) " +
+            "from User u left join u.addresses a order by u.id, a.id")
+    Stream<UserExportRow> streamExportRows();
 }
@@ -0,0 +1,101 @@
+package com.example.demo.security;
+
+import com.example.demo.config.SessionProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Session store local to this instance (app.security.sessions.store=memory, the default)
+ *
+ * Sessions live in a size-bounded Caffeine cache that expires them after the idle
+ * timeout. A second map indexes tokens by user id so deactivating a user touches only
+ * that user's sessions; the cache's removal listener keeps it in step.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.security.sessions", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySessionStore implements SessionStore {
+
+    private final Cache<String, UserSession> sessions;
+    private final ConcurrentMap<Long, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InMemorySessionStore(SessionProperties properties) {
+        this(properties, Ticker.systemTicker());
+    }
+
+    InMemorySessionStore(SessionProperties properties, Ticker ticker) {
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSessions())
+                .expireAfterAccess(properties.getTimeout())
+                .ticker(ticker)
+                // Run the listener on the calling thread so the index never lags behind the cache
+                .executor(Runnable::run)
+                .<String, UserSession>removalListener((token, session, cause) -> {
+                    // REPLACED is a deactivation rewriting the entry, the token is still there
+                    if (token != null && session != null && cause != RemovalCause.REPLACED) {
+                        unindex(session.userId(), token);
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public void save(String token, UserSession session) {
+        tokensByUser.compute(session.userId(), (userId, tokens) -> {
+            Set<String> updated = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            updated.add(token);
+            return updated;
+        });
+        sessions.put(token, session);
+    }
+
+    @Override
+    public Optional<UserSession> find(String token) {
+        return Optional.ofNullable(sessions.getIfPresent(token));
+    }
+
+    @Override
+    public void remove(String token) {
+        sessions.invalidate(token);
+    }
+
+    @Override
+    public void deactivateUsers(Collection<Long> userIds) {
+        for (Long userId : userIds) {
+            Set<String> tokens = tokensByUser.get(userId);
+            if (tokens == null) {
+                continue;
+            }
+            for (String token : tokens) {
+                sessions.asMap().computeIfPresent(token, (key, session) -> session.deactivated());
+            }
+        }
+    }
+
+    long size() {
+        sessions.cleanUp();
+        return sessions.estimatedSize();
+    }
+
+    int indexedUsers() {
+        return tokensByUser.size();
+    }
+
+    private void unindex(long userId, String token) {
+        tokensByUser.computeIfPresent(userId, (id, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+}
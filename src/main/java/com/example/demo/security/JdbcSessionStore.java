@@ -0,0 +1,137 @@
+package com.example.demo.security;
+
+import com.example.demo.config.SessionProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Session store shared by every instance (app.security.sessions.store=jdbc)
+ *
+ * One row per session in user_sessions, looked up by primary key. Rows hold a
+ * SHA-256 of the token, so reading the table does not allow taking over a session.
+ *
+ * Expiry is an absolute timestamp pushed forward on access, but only once less than
+ * half the timeout remains, so most requests are a single primary-key select.
+ * Expired rows are deleted on login, at most once per cleanup interval.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.security.sessions", name = "store", havingValue = "jdbc")
+@Slf4j
+public class JdbcSessionStore implements SessionStore {
+
+    private static final int DEACTIVATE_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LongSupplier clock;
+    private final long timeoutMillis;
+    private final long cleanupIntervalMillis;
+    private final AtomicLong nextCleanup = new AtomicLong();
+
+    @Autowired
+    public JdbcSessionStore(JdbcTemplate jdbcTemplate, SessionProperties properties) {
+        this(jdbcTemplate, properties, System::currentTimeMillis);
+    }
+
+    JdbcSessionStore(JdbcTemplate jdbcTemplate, SessionProperties properties, LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.timeoutMillis = properties.getTimeout().toMillis();
+        this.cleanupIntervalMillis = properties.getCleanupInterval().toMillis();
+    }
+
+    @Override
+    public void save(String token, UserSession session) {
+        long now = clock.getAsLong();
+        removeExpired(now);
+        jdbcTemplate.update("insert into user_sessions (token_hash, user_id, active, expires_at) values (?, ?, ?, ?)",
+                hash(token), session.userId(), session.active(), now + timeoutMillis);
+    }
+
+    @Override
+    public Optional<UserSession> find(String token) {
+        String tokenHash = hash(token);
+        List<StoredSession> rows = jdbcTemplate.query(
+                "select user_id, active, expires_at from user_sessions where token_hash = ?",
+                (rs, rowNum) -> new StoredSession(
+                        new UserSession(rs.getLong("user_id"), rs.getBoolean("active")), rs.getLong("expires_at")),
+                tokenHash);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        StoredSession stored = rows.get(0);
+        long now = clock.getAsLong();
+        if (stored.expiresAt() <= now) {
+            return Optional.empty();
+        }
+        if (stored.expiresAt() - now < timeoutMillis / 2) {
+            jdbcTemplate.update("update user_sessions set expires_at = ? where token_hash = ?",
+                    now + timeoutMillis, tokenHash);
+        }
+        return Optional.of(stored.session());
+    }
+
+    @Override
+    public void remove(String token) {
+        jdbcTemplate.update("delete from user_sessions where token_hash = ?", hash(token));
+    }
+
+    // Called once the user change has committed: a transaction of its own, not the finished one
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void deactivateUsers(Collection<Long> userIds) {
+        List<Object[]> batch = new ArrayList<>(Math.min(userIds.size(), DEACTIVATE_BATCH_SIZE));
+        for (Long userId : userIds) {
+            batch.add(new Object[]{userId});
+            if (batch.size() == DEACTIVATE_BATCH_SIZE) {
+                deactivate(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            deactivate(batch);
+        }
+    }
+
+    private void deactivate(List<Object[]> userIds) {
+        jdbcTemplate.batchUpdate("update user_sessions set active = false where user_id = ? and active = true", userIds);
+    }
+
+    private void removeExpired(long now) {
+        long due = nextCleanup.get();
+        // One caller per interval wins the CAS and does the delete
+        if (now < due || !nextCleanup.compareAndSet(due, now + cleanupIntervalMillis)) {
+            return;
+        }
+        int removed = jdbcTemplate.update("delete from user_sessions where expires_at <= ?", now);
+        log.debug("Removed {} expired sessions", removed);
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record StoredSession(UserSession session, long expiresAt) {
+    }
+}
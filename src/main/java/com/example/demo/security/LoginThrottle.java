@@ -0,0 +1,165 @@
+package com.example.demo.security;
+
+import com.example.demo.config.LoginThrottleProperties;
+import com.example.demo.services.UserEmailCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory login throttle keyed by email and by client IP
+ *
+ * Failed logins are counted in a sliding window approximated from two fixed windows:
+ * estimate = current + previous * (share of the previous window still inside the slide).
+ * Each key's state is a single AtomicLong updated by CAS (no locks):
+ *   [window index : 32 bits][previous count : 16 bits][current count : 16 bits]
+ *
+ * Keys live in size-bounded Caffeine caches that also expire idle keys after two
+ * windows, so memory stays bounded during a credential-stuffing wave.
+ * The check runs before any database access.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final long COUNT_MASK = 0xFFFF;
+    private static final long INDEX_MASK = 0xFFFF_FFFFL;
+
+    private final LoginThrottleProperties properties;
+    private final LongSupplier clock;
+    private final long windowMillis;
+    private final Cache<String, AtomicLong> emailWindows;
+    private final Cache<String, AtomicLong> ipWindows;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public LoginThrottle(LoginThrottleProperties properties) {
+        this(properties, System::currentTimeMillis);
+    }
+
+    LoginThrottle(LoginThrottleProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.windowMillis = Math.max(1, properties.getWindow().toMillis());
+        this.emailWindows = newCache(properties);
+        this.ipWindows = newCache(properties);
+    }
+
+    /**
+     * True when the email or the client IP has too many recent failures
+     * Counts the attempt as admitted or rejected
+     *
+     * @param email login email (normalized internally)
+     * @param clientIp remote address, may be null
+     */
+    public boolean isThrottled(String email, String clientIp) {
+        if (!properties.isEnabled()) {
+            admitted.increment();
+            return false;
+        }
+        long now = clock.getAsLong();
+        boolean throttled = estimate(emailWindows, UserEmailCache.normalize(email), now) >= properties.getMaxFailuresPerEmail()
+                || estimate(ipWindows, clientIp, now) >= properties.getMaxFailuresPerIp();
+        (throttled ? rejected : admitted).increment();
+        return throttled;
+    }
+
+    /**
+     * Count a failed login for the email and the client IP
+     */
+    public void recordFailure(String email, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = clock.getAsLong();
+        increment(emailWindows, UserEmailCache.normalize(email), now);
+        increment(ipWindows, clientIp, now);
+    }
+
+    /**
+     * Forget the failures of an email after a successful login (the IP keeps its count)
+     */
+    public void recordSuccess(String email) {
+        String key = UserEmailCache.normalize(email);
+        if (key != null) {
+            emailWindows.invalidate(key);
+        }
+    }
+
+    public long getAdmittedCount() {
+        return admitted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getTrackedKeyCount() {
+        return emailWindows.estimatedSize() + ipWindows.estimatedSize();
+    }
+
+    private void increment(Cache<String, AtomicLong> windows, String key, long now) {
+        if (key == null) {
+            return;
+        }
+        AtomicLong state = windows.get(key, k -> new AtomicLong());
+        long index = (now / windowMillis) & INDEX_MASK;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long stateIndex = current >>> 32;
+            long currentCount = current & COUNT_MASK;
+            long previousCount;
+            if (stateIndex == index) {
+                previousCount = (current >>> 16) & COUNT_MASK;
+                currentCount = Math.min(currentCount + 1, COUNT_MASK);
+            } else if (stateIndex == ((index - 1) & INDEX_MASK)) {
+                previousCount = currentCount;
+                currentCount = 1;
+            } else {
+                previousCount = 0;
+                currentCount = 1;
+            }
+            next = (index << 32) | (previousCount << 16) | currentCount;
+        } while (!state.compareAndSet(current, next));
+    }
+
+    private double estimate(Cache<String, AtomicLong> windows, String key, long now) {
+        if (key == null) {
+            return 0;
+        }
+        AtomicLong state = windows.getIfPresent(key);
+        if (state == null) {
+            return 0;
+        }
+        long value = state.get();
+        long index = (now / windowMillis) & INDEX_MASK;
+        long stateIndex = value >>> 32;
+        long currentCount = value & COUNT_MASK;
+        long previousCount = (value >>> 16) & COUNT_MASK;
+        // Share of the previous window still covered by a window ending now
+        double previousWeight = 1.0 - (double) (now % windowMillis) / windowMillis;
+
+        if (stateIndex == index) {
+            return currentCount + previousCount * previousWeight;
+        }
+        if (stateIndex == ((index - 1) & INDEX_MASK)) {
+            return currentCount * previousWeight;
+        }
+        return 0;
+    }
+
+    private static Cache<String, AtomicLong> newCache(LoginThrottleProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumKeys())
+                .expireAfterAccess(properties.getWindow().multipliedBy(2))
+                .build();
+    }
+}
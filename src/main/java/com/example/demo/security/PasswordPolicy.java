@@ -0,0 +1,173 @@
+package com.example.demo.security;
+
+import com.example.demo.config.PasswordPolicyProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Password strength rules, evaluated together
+ *
+ * Length and character classes are checked in a single pass over the characters,
+ * the deny-list is a case-insensitive sorted set (no lower-cased copy of the password),
+ * and the distance to the current password is a bounded edit distance over two int rows.
+ * All rule state is built once from the configuration; validate() returns every
+ * violation instead of stopping at the first.
+ */
+@Component
+public class PasswordPolicy {
+
+    private static final int UPPERCASE = 1;
+    private static final int LOWERCASE = 1 << 1;
+    private static final int DIGIT = 1 << 2;
+    private static final int SYMBOL = 1 << 3;
+
+    private final int minLength;
+    private final int maxLength;
+    private final int requiredClasses;
+    private final TreeSet<String> deniedPasswords = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    private final int minChangesFromCurrent;
+
+    public PasswordPolicy(PasswordPolicyProperties properties) {
+        this.minLength = properties.getMinLength();
+        this.maxLength = properties.getMaxLength();
+        this.requiredClasses = (properties.isRequireUppercase() ? UPPERCASE : 0)
+                | (properties.isRequireLowercase() ? LOWERCASE : 0)
+                | (properties.isRequireDigit() ? DIGIT : 0)
+                | (properties.isRequireSymbol() ? SYMBOL : 0);
+        this.deniedPasswords.addAll(properties.getDeniedPasswords());
+        this.minChangesFromCurrent = properties.getMinChangesFromCurrent();
+    }
+
+    /**
+     * Check a new password against every rule
+     *
+     * @param newPassword candidate password, null counts as too short
+     * @param currentPassword the raw password being replaced, null to skip the similarity rule
+     * @return one message per violated rule, empty when the password is acceptable
+     */
+    public List<String> validate(String newPassword, String currentPassword) {
+        List<String> violations = new ArrayList<>(2);
+        if (newPassword == null) {
+            violations.add(tooShort());
+            return violations;
+        }
+
+        if (currentPassword != null && minChangesFromCurrent > 0
+                && isWithinDistance(newPassword, currentPassword, minChangesFromCurrent - 1)) {
+            violations.add(newPassword.equals(currentPassword)
+                    ? "New password must be different from current password"
+                    : "New password is too similar to current password");
+        }
+
+        int length = newPassword.length();
+        if (length < minLength) {
+            violations.add(tooShort());
+        } else if (length > maxLength) {
+            violations.add("Password must be at most " + maxLength + " characters long");
+        }
+
+        int missing = requiredClasses & ~characterClasses(newPassword);
+        if ((missing & UPPERCASE) != 0) {
+            violations.add("Password must contain at least one uppercase letter");
+        }
+        if ((missing & LOWERCASE) != 0) {
+            violations.add("Password must contain at least one lowercase letter");
+        }
+        if ((missing & DIGIT) != 0) {
+            violations.add("Password must contain at least one digit");
+        }
+        if ((missing & SYMBOL) != 0) {
+            violations.add("Password must contain at least one special character");
+        }
+
+        if (!deniedPasswords.isEmpty() && deniedPasswords.contains(newPassword)) {
+            violations.add("Password is too common");
+        }
+        return violations;
+    }
+
+    private String tooShort() {
+        return "Password must be at least " + minLength + " characters long";
+    }
+
+    /**
+     * Bit set of the character classes present, in one pass with early exit once all required ones are seen
+     */
+    private int characterClasses(String password) {
+        int seen = 0;
+        for (int i = 0, n = password.length(); i < n && (seen & requiredClasses) != requiredClasses; i++) {
+            char c = password.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                seen |= LOWERCASE;
+            } else if (c >= 'A' && c <= 'Z') {
+                seen |= UPPERCASE;
+            } else if (c >= '0' && c <= '9') {
+                seen |= DIGIT;
+            } else if (Character.isLowerCase(c)) {
+                seen |= LOWERCASE;
+            } else if (Character.isUpperCase(c)) {
+                seen |= UPPERCASE;
+            } else if (Character.isDigit(c)) {
+                seen |= DIGIT;
+            } else if (!Character.isLetter(c) && !Character.isWhitespace(c)) {
+                seen |= SYMBOL;
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * True when the case-insensitive edit distance between a and b is at most maxDistance
+     * Only the diagonal band of width 2 * maxDistance + 1 is computed, and rows stop early once over the bound
+     */
+    static boolean isWithinDistance(String a, String b, int maxDistance) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > maxDistance) {
+            return false;
+        }
+        if (maxDistance == 0) {
+            return a.equalsIgnoreCase(b);
+        }
+        int beyond = maxDistance + 1;
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i - maxDistance);
+            int to = Math.min(m, i + maxDistance);
+            current[0] = i;
+            if (from > 1) {
+                current[from - 1] = beyond;
+            }
+            int rowMin = from == 1 ? i : beyond;
+            char ca = a.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = sameIgnoringCase(ca, b.charAt(j - 1)) ? 0 : 1;
+                int up = j <= i - 1 + maxDistance ? previous[j] : beyond;
+                int value = Math.min(Math.min(up + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(value, beyond);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < m) {
+                current[to + 1] = beyond;
+            }
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[m] <= maxDistance;
+    }
+
+    private static boolean sameIgnoringCase(char x, char y) {
+        return x == y || Character.toLowerCase(x) == Character.toLowerCase(y);
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.demo.security;
+
+import com.example.demo.config.PasswordHashingProperties;
+import com.example.demo.exceptions.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Password hashing and verification
+ *
+ * Hash format: "{id}hash", e.g. "{bcrypt}$2a$10$...", so several algorithms and
+ * cost settings can coexist. Legacy rows without a prefix are plaintext: they still
+ * match, and needsRehash() reports them so login can upgrade them.
+ *
+ * All hashing runs on a fixed, core-sized pool with a bounded queue. When the queue
+ * is full a call fails immediately with ServiceOverloadedException, so a login storm
+ * costs at most one core per pool thread and never piles up on Tomcat threads. Bulk
+ * hashing keeps at most one task per pool thread queued or running and waits for room
+ * instead, so it uses every core without crowding logins out of the queue.
+ */
+@Service
+@Slf4j
+public class PasswordService {
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordService(PasswordHashingProperties properties) {
+        this.encoder = createEncoder(properties);
+        int threads = properties.getPoolSize() > 0
+                ? properties.getPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = properties.getTimeout().toMillis();
+    }
+
+    /**
+     * Hash a raw password with the current encoder
+     *
+     * @throws ServiceOverloadedException if the hashing pool is saturated
+     */
+    public String hash(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Hash many raw passwords concurrently on the pool
+     *
+     * The caller blocks while as many of its passwords as the pool has threads are queued
+     * or running. A password that cannot be submitted (queue full of other work) or hashed
+     * within the timeout is given up on.
+     *
+     * @return the hashes in input order, null for each password given up on
+     * @throws ServiceOverloadedException if the calling thread is interrupted
+     */
+    public List<String> hashAll(List<String> rawPasswords) {
+        int count = rawPasswords.size();
+        String[] hashes = new String[count];
+        List<Future<String>> futures = new ArrayList<>(count);
+        Deque<Integer> inFlight = new ArrayDeque<>();
+        int window = executor.getMaximumPoolSize();
+        long submitDeadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            while (futures.size() < count || !inFlight.isEmpty()) {
+                int next = futures.size();
+                if (next < count && inFlight.size() < window) {
+                    String raw = rawPasswords.get(next);
+                    try {
+                        futures.add(executor.submit(() -> encoder.encode(raw)));
+                        inFlight.add(next);
+                        submitDeadline = System.currentTimeMillis() + timeoutMillis;
+                        continue;
+                    } catch (RejectedExecutionException e) {
+                        if (inFlight.isEmpty()) {
+                            // Nothing of ours to wait for: the queue is full of other callers' work
+                            if (System.currentTimeMillis() >= submitDeadline) {
+                                rejected.increment();
+                                futures.add(null);
+                                submitDeadline = System.currentTimeMillis() + timeoutMillis;
+                            } else {
+                                Thread.sleep(10);
+                            }
+                            continue;
+                        }
+                    }
+                }
+                int oldest = inFlight.remove();
+                hashes[oldest] = await(futures.get(oldest));
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> {
+                if (future != null) {
+                    future.cancel(true);
+                }
+            });
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Password hashing interrupted");
+        }
+        return Arrays.asList(hashes);
+    }
+
+    /**
+     * Check a raw password against a stored hash (or legacy plaintext)
+     *
+     * @throws ServiceOverloadedException if the hashing pool is saturated
+     */
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        return run(() -> encoder.matches(rawPassword, storedPassword));
+    }
+
+    /**
+     * True when the stored value is plaintext, uses another algorithm, or a lower cost than configured
+     */
+    public boolean needsRehash(String storedPassword) {
+        return storedPassword != null && encoder.upgradeEncoding(storedPassword);
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Calls refused because the queue was full or the hash timed out
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Password hashing rejected: {} queued, {} active", executor.getQueue().size(), executor.getActiveCount());
+            throw new ServiceOverloadedException("Server is busy, please try again shortly");
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceOverloadedException("Server is busy, please try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Password check interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Result of a bulk hash, or null if it timed out
+    private String await(Future<String> future) throws InterruptedException {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static PasswordEncoder createEncoder(PasswordHashingProperties properties) {
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", new BCryptPasswordEncoder(properties.getBcryptStrength()),
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(properties.getEncoder())) {
+            throw new IllegalArgumentException("Unknown password encoder: " + properties.getEncoder());
+        }
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(properties.getEncoder(), encoders);
+        // Rows written before hashing was introduced hold the plaintext password
+        delegating.setDefaultPasswordEncoderForMatches(NoOpPasswordEncoder.getInstance());
+        return delegating;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.demo.security;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Server-side storage of login sessions, keyed by the opaque session token
+ *
+ * Implementations look a token up in O(1) and extend its idle timeout on every hit.
+ * deactivateUsers() takes effect before it returns, so a deactivated user is
+ * logged out on their very next request.
+ */
+public interface SessionStore {
+
+    void save(String token, UserSession session);
+
+    /**
+     * The session for a token, whether active or not
+     *
+     * @return empty if the token is unknown or the session expired
+     */
+    Optional<UserSession> find(String token);
+
+    void remove(String token);
+
+    /**
+     * Mark every session of the given users inactive
+     */
+    void deactivateUsers(Collection<Long> userIds);
+}
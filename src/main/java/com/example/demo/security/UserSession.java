@@ -0,0 +1,12 @@
+package com.example.demo.security;
+
+/**
+ * What the server keeps per login: the user id and whether the user is still active
+ * Everything else about the user is read from the database when a page needs it.
+ */
+public record UserSession(long userId, boolean active) {
+
+    public UserSession deactivated() {
+        return new UserSession(userId, false);
+    }
+}
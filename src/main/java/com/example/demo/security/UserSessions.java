@@ -0,0 +1,98 @@
+package com.example.demo.security;
+
+import com.example.demo.config.SessionProperties;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Login sessions for the web UI
+ *
+ * The browser holds a random token in an HttpOnly cookie; the SessionStore maps it to
+ * a UserSession (user id + active flag). Nothing is kept in the HttpSession, so any
+ * instance sharing the store can serve any request.
+ */
+@Component
+@AllArgsConstructor
+public class UserSessions {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final SessionStore sessionStore;
+    private final SessionProperties properties;
+
+    /**
+     * Start a session for the user, replacing any session the request already carries
+     */
+    public void login(long userId, HttpServletRequest request, HttpServletResponse response) {
+        String previous = token(request);
+        if (previous != null) {
+            sessionStore.remove(previous);
+        }
+        // Browser-session cookie: the idle timeout is enforced by the store, not by the cookie
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(create(userId), -1).toString());
+    }
+
+    /**
+     * Create a session and return its token, without setting a cookie
+     */
+    public String create(long userId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessionStore.save(token, new UserSession(userId, true));
+        return token;
+    }
+
+    /**
+     * The active session of the request, if any
+     * Sessions of deactivated users are treated as logged out
+     */
+    public Optional<UserSession> current(HttpServletRequest request) {
+        String token = token(request);
+        if (token == null) {
+            return Optional.empty();
+        }
+        return sessionStore.find(token).filter(UserSession::active);
+    }
+
+    public void logout(HttpServletRequest request, HttpServletResponse response) {
+        String token = token(request);
+        if (token != null) {
+            sessionStore.remove(token);
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie("", 0).toString());
+    }
+
+    private String token(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (properties.getCookieName().equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private ResponseCookie cookie(String value, long maxAgeSeconds) {
+        return ResponseCookie.from(properties.getCookieName(), value)
+                .path("/")
+                .httpOnly(true)
+                .secure(properties.isSecureCookie())
+                .sameSite("Lax")
+                .maxAge(maxAgeSeconds)
+                .build();
+    }
+}
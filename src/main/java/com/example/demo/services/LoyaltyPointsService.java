@@ -0,0 +1,88 @@
+package com.example.demo.services;
+
+import com.example.demo.dtos.LoyaltyLedgerEntryDto;
+import com.example.demo.dtos.LoyaltyPointsDto;
+import com.example.demo.exceptions.UserNotFoundException;
+import com.example.demo.loyalty.LoyaltyAward;
+import com.example.demo.loyalty.LoyaltyLedger;
+import com.example.demo.loyalty.LoyaltyPointsAccumulator;
+import com.example.demo.repositories.UserRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loyalty points of users
+ *
+ * Business Logic:
+ * - An award is added to the balance and the ledger in its own transaction, or with
+ *   app.loyalty.write-behind accumulated in memory and written in batches
+ * - Balances only grow through atomic increments, never by load-modify-save
+ * - Balances report write-behind points not yet written separately as pending
+ */
+@Service
+@AllArgsConstructor
+public class LoyaltyPointsService {
+    private final LoyaltyLedger loyaltyLedger;
+    private final Optional<LoyaltyPointsAccumulator> accumulator;
+    private final UserRepository userRepository;
+
+    /**
+     * Award points to a user
+     *
+     * @param userId User ID
+     * @param reason Why the points were awarded, recorded in the ledger
+     * @param points Points to add, positive
+     * @return true if the points are in the balance, false if accepted for write-behind
+     * @throws UserNotFoundException if the user doesn't exist
+     */
+    public boolean award(Long userId, String reason, int points) {
+        if (accumulator.isPresent()) {
+            // Checked now: a flush could only drop the points
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException(userId);
+            }
+            accumulator.get().award(userId, reason, points);
+            return false;
+        }
+        try {
+            loyaltyLedger.apply(List.of(new LoyaltyAward(userId, reason, points)));
+        } catch (DataIntegrityViolationException e) {
+            // The foreign keys already checked the user; only look it up on failure
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException(userId);
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Balance of a user, with write-behind points not written yet
+     *
+     * @param userId User ID
+     * @return the points, or empty if the user doesn't exist
+     */
+    public Optional<LoyaltyPointsDto> getPoints(Long userId) {
+        long pending = accumulator.map(a -> a.getPending(userId)).orElse(0L);
+        return loyaltyLedger.findBalance(userId)
+                .map(balance -> new LoyaltyPointsDto(userId, balance, pending));
+    }
+
+    /**
+     * Latest ledger entries of a user, newest first
+     *
+     * @param userId User ID
+     * @param limit Entries to return
+     * @return the entries, or empty if the user doesn't exist
+     */
+    public Optional<List<LoyaltyLedgerEntryDto>> getHistory(Long userId, int limit) {
+        if (!userRepository.existsById(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(loyaltyLedger.findHistory(userId, limit));
+    }
+}
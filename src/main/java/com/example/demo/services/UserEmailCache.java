@@ -0,0 +1,67 @@
+package com.example.demo.services;
+
+import com.example.demo.config.UserEmailCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Bounded, TTL-evicting cache of normalized email -> user id used by login
+ *
+ * Only hits are cached, so a newly created user is always found.
+ * Entries of users whose email changed or who were deleted are evicted by
+ * UserEmailCacheSubscriber once the change commits.
+ */
+@Component
+public class UserEmailCache {
+
+    private final Cache<String, Long> cache;
+
+    public UserEmailCache(UserEmailCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    /**
+     * Lower-case and trim an email so lookups are case-insensitive, like the users.email collation
+     */
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public Long get(String email) {
+        String key = normalize(email);
+        return key == null ? null : cache.getIfPresent(key);
+    }
+
+    public void put(String email, Long userId) {
+        String key = normalize(email);
+        if (key != null && userId != null) {
+            cache.put(key, userId);
+        }
+    }
+
+    public void invalidate(String email) {
+        String key = normalize(email);
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Drop every entry pointing at one of the users, whatever email it is under
+     * Walks the whole cache, so callers batch the ids
+     */
+    public void invalidateUsers(Collection<Long> userIds) {
+        cache.asMap().values().removeIf(userIds::contains);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.services;
+
+import com.example.demo.dtos.UserExportRow;
+import com.example.demo.repositories.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Full export of users and their addresses
+ *
+ * Rows come from a forward-only cursor and are written to the output as they are read,
+ * so heap usage does not depend on the number of users. Writes block when the client
+ * reads slowly, which in turn stops the cursor.
+ */
+@Service
+@AllArgsConstructor
+public class UserExportService {
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    /**
+     * Write every user with its addresses to the output in the given format
+     * The output is flushed but not closed
+     */
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        switch (format) {
+            case CSV -> exportCsv(out);
+            case NDJSON -> exportNdjson(out);
+        }
+    }
+
+    /**
+     * CSV: one line per user/address pair, user columns repeated, address columns empty when none
+     */
+    private void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("user_id,name,email,active,address_id,street,city,state,zip\n");
+        try (Stream<UserExportRow> rows = userRepository.streamExportRows()) {
+            for (Iterator<UserExportRow> it = rows.iterator(); it.hasNext(); ) {
+                UserExportRow row = it.next();
+                writer.write(String.valueOf(row.getUserId()));
+                writer.write(',');
+                writeCsvField(writer, row.getName());
+                writer.write(',');
+                writeCsvField(writer, row.getEmail());
+                writer.write(',');
+                writer.write(String.valueOf(row.getActive()));
+                writer.write(',');
+                writer.write(row.getAddressId() == null ? "" : String.valueOf(row.getAddressId()));
+                writer.write(',');
+                writeCsvField(writer, row.getStreet());
+                writer.write(',');
+                writeCsvField(writer, row.getCity());
+                writer.write(',');
+                writeCsvField(writer, row.getState());
+                writer.write(',');
+                writeCsvField(writer, row.getZipCode());
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * NDJSON: one object per user with its addresses nested
+     */
+    private void exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Objects are newline-terminated by endUser, not space-separated
+        generator.setRootValueSeparator(null);
+
+        try (Stream<UserExportRow> rows = userRepository.streamExportRows()) {
+            Long currentUserId = null;
+            for (Iterator<UserExportRow> it = rows.iterator(); it.hasNext(); ) {
+                UserExportRow row = it.next();
+                if (!row.getUserId().equals(currentUserId)) {
+                    if (currentUserId != null) {
+                        endUser(generator);
+                    }
+                    currentUserId = row.getUserId();
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", row.getUserId());
+                    generator.writeStringField("name", row.getName());
+                    generator.writeStringField("email", row.getEmail());
+                    generator.writeBooleanField("active", row.getActive());
+                    generator.writeArrayFieldStart("addresses");
+                }
+                if (row.getAddressId() != null) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", row.getAddressId());
+                    generator.writeStringField("street", row.getStreet());
+                    generator.writeStringField("city", row.getCity());
+                    generator.writeStringField("state", row.getState());
+                    generator.writeStringField("zipCode", row.getZipCode());
+                    generator.writeEndObject();
+                }
+            }
+            if (currentUserId != null) {
+                endUser(generator);
+            }
+        }
+        generator.flush();
+    }
+
+    private static void endUser(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
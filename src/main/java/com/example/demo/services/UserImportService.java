@@ -0,0 +1,322 @@
+package com.example.demo.services;
+
+import com.example.demo.config.BulkImportProperties;
+import com.example.demo.dtos.BulkImportResultDto;
+import com.example.demo.dtos.RegisterUserRequest;
+import com.example.demo.dtos.UserDto;
+import com.example.demo.entities.User;
+import com.example.demo.events.UserEventPublisher;
+import com.example.demo.events.UserEventType;
+import com.example.demo.exceptions.ServiceOverloadedException;
+import com.example.demo.mappers.UserMapper;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.PasswordService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bulk user creation from a streamed JSON array or CSV body
+ *
+ * Business Logic:
+ * - Parse the body incrementally, never holding more than one chunk of rows
+ * - Reject rows with missing fields or an email that already exists
+ * - Hash each chunk's passwords concurrently on the hashing pool, before its transaction;
+ *   rows the pool cannot take in time are reported as failed and the import goes on
+ * - Persist each chunk in its own transaction (JDBC-batched) with its CREATED events, then flush and clear
+ * - If a chunk fails in the database, retry its rows one by one to report the culprits
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class UserImportService {
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final PasswordService passwordService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BulkImportProperties properties;
+    private final UserEventPublisher userEventPublisher;
+
+    /**
+     * Import a JSON array of RegisterUserRequest objects
+     */
+    public BulkImportResultDto importJson(InputStream body) {
+        ImportRun run = new ImportRun();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                run.rejectInput("Expected a JSON array of users");
+                return run.finish();
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    run.rejectInput("Unterminated JSON array");
+                    break;
+                }
+                if (token == JsonToken.START_OBJECT) {
+                    run.add(objectMapper.readValue(parser, RegisterUserRequest.class));
+                } else {
+                    // A number, string, null or nested array: reject it as a row and read on
+                    parser.skipChildren();
+                    run.rejectRow("Expected a JSON object");
+                }
+            }
+        } catch (IOException e) {
+            run.rejectInput("Malformed JSON: " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    /**
+     * Import CSV with a header row naming the columns name, email and password (any order)
+     */
+    public BulkImportResultDto importCsv(Reader body) {
+        ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(body)) {
+            String header = reader.readLine();
+            if (header == null) {
+                return run.finish();
+            }
+            List<String> columns = parseCsvLine(header.replace("\uFEFF", "").toLowerCase(Locale.ROOT));
+            int nameColumn = columns.indexOf("name");
+            int emailColumn = columns.indexOf("email");
+            int passwordColumn = columns.indexOf("password");
+            if (nameColumn < 0 || emailColumn < 0 || passwordColumn < 0) {
+                run.rejectInput("CSV header must contain name, email and password");
+                return run.finish();
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> fields = parseCsvLine(line);
+                var request = new RegisterUserRequest();
+                request.setName(field(fields, nameColumn));
+                request.setEmail(field(fields, emailColumn));
+                request.setPassword(field(fields, passwordColumn));
+                run.add(request);
+            }
+        } catch (IOException e) {
+            run.rejectInput("Unreadable CSV: " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    /**
+     * State of one import: the pending chunk and the running totals
+     */
+    private class ImportRun {
+        private final long startedAt = System.nanoTime();
+        private final List<BulkImportResultDto.RowError> errors = new ArrayList<>();
+        private List<PendingRow> chunk = new ArrayList<>();
+        private int received;
+        private int created;
+        private int failed;
+
+        void add(RegisterUserRequest request) {
+            received++;
+            String missing = missingField(request);
+            if (missing != null) {
+                reject(received, request.getEmail(), missing + " is required");
+                return;
+            }
+            chunk.add(new PendingRow(received, request));
+            if (chunk.size() >= properties.getChunkSize()) {
+                flushChunk();
+            }
+        }
+
+        void rejectRow(String message) {
+            received++;
+            reject(received, null, message);
+        }
+
+        void rejectInput(String message) {
+            reject(received + 1, null, message);
+        }
+
+        BulkImportResultDto finish() {
+            flushChunk();
+            long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+            log.info("Bulk import: {} received, {} created, {} failed in {} ms", received, created, failed, elapsedMillis);
+            return new BulkImportResultDto(received, created, failed, elapsedMillis, errors);
+        }
+
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            // Hash outside the chunk transaction so no connection is held while hashing
+            List<PendingRow> rows = hashPasswords(rejectDuplicates(chunk));
+            chunk = new ArrayList<>();
+            if (rows.isEmpty()) {
+                return;
+            }
+            try {
+                List<UserDto> users = new ArrayList<>(rows.size());
+                transactionTemplate.executeWithoutResult(tx -> {
+                    for (PendingRow row : rows) {
+                        User user = userMapper.toEntity(row.request());
+                        entityManager.persist(user);
+                        users.add(userMapper.toDto(user));
+                    }
+                    userEventPublisher.publishAll(UserEventType.CREATED, users);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                created += rows.size();
+            } catch (DataAccessException | PersistenceException e) {
+                log.warn("Bulk import chunk failed, retrying {} rows individually: {}", rows.size(), e.getMessage());
+                for (PendingRow row : rows) {
+                    try {
+                        User user = userMapper.toEntity(row.request());
+                        transactionTemplate.executeWithoutResult(tx -> {
+                            entityManager.persist(user);
+                            userEventPublisher.publish(UserEventType.CREATED, userMapper.toDto(user));
+                        });
+                        created++;
+                    } catch (DataAccessException | PersistenceException rowError) {
+                        reject(row.row(), row.request().getEmail(), "Could not be saved: " + rootMessage(rowError));
+                    }
+                }
+            }
+        }
+
+        private List<PendingRow> rejectDuplicates(List<PendingRow> rows) {
+            Set<String> emails = new HashSet<>();
+            for (PendingRow row : rows) {
+                emails.add(UserEmailCache.normalize(row.request().getEmail()));
+            }
+            Set<String> taken = new HashSet<>();
+            for (String existing : userRepository.findExistingEmails(emails)) {
+                taken.add(UserEmailCache.normalize(existing));
+            }
+
+            List<PendingRow> accepted = new ArrayList<>(rows.size());
+            for (PendingRow row : rows) {
+                // add() returns false for a repeat within this chunk
+                if (!taken.add(UserEmailCache.normalize(row.request().getEmail()))) {
+                    reject(row.row(), row.request().getEmail(), "Email already exists");
+                } else {
+                    accepted.add(row);
+                }
+            }
+            return accepted;
+        }
+
+        private List<PendingRow> hashPasswords(List<PendingRow> rows) {
+            if (rows.isEmpty()) {
+                return rows;
+            }
+            List<String> hashes;
+            try {
+                hashes = passwordService.hashAll(rows.stream().map(row -> row.request().getPassword()).toList());
+            } catch (ServiceOverloadedException e) {
+                for (PendingRow row : rows) {
+                    reject(row.row(), row.request().getEmail(), e.getMessage());
+                }
+                return List.of();
+            }
+            List<PendingRow> hashed = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                PendingRow row = rows.get(i);
+                if (hashes.get(i) == null) {
+                    reject(row.row(), row.request().getEmail(), "Server is busy, password not hashed; import this row again");
+                } else {
+                    row.request().setPassword(hashes.get(i));
+                    hashed.add(row);
+                }
+            }
+            return hashed;
+        }
+
+        private void reject(int row, String email, String message) {
+            failed++;
+            if (errors.size() < properties.getMaxReportedErrors()) {
+                errors.add(new BulkImportResultDto.RowError(row, email, message));
+            }
+        }
+    }
+
+    private record PendingRow(int row, RegisterUserRequest request) {
+    }
+
+    private static String missingField(RegisterUserRequest request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            return "name";
+        }
+        if (request.getEmail() == null || request.getEmail().isBlank()) {
+            return "email";
+        }
+        if (request.getPassword() == null || request.getPassword().isEmpty()) {
+            return "password";
+        }
+        return null;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and "" escapes
+     * Fields spanning several lines are not supported
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString().trim());
+        return fields;
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Business outcome counters for UserService
+ *
+ * Meters are registered once up front so recording is a plain counter increment.
+ * Timings come from @Timed on UserService; these only count what happened.
+ */
+@Component
+public class UserMetrics {
+
+    public enum LoginOutcome {
+        SUCCESS, UNKNOWN_EMAIL, INACTIVE, BAD_PASSWORD, THROTTLED
+    }
+
+    public enum PasswordChangeOutcome {
+        SUCCESS, NOT_FOUND, BAD_CURRENT_PASSWORD, POLICY_VIOLATION
+    }
+
+    private final Counter[] logins = new Counter[LoginOutcome.values().length];
+    private final Counter[] passwordChanges = new Counter[PasswordChangeOutcome.values().length];
+    private final Counter activations;
+    private final Counter deactivations;
+
+    public UserMetrics(MeterRegistry registry) {
+        for (LoginOutcome outcome : LoginOutcome.values()) {
+            logins[outcome.ordinal()] = Counter.builder("users.logins")
+                    .description("Login attempts by outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        for (PasswordChangeOutcome outcome : PasswordChangeOutcome.values()) {
+            passwordChanges[outcome.ordinal()] = Counter.builder("users.password.changes")
+                    .description("Password change attempts by outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+        activations = Counter.builder("users.status.changes")
+                .description("Users switched to a new active state")
+                .tag("state", "active")
+                .register(registry);
+        deactivations = Counter.builder("users.status.changes")
+                .description("Users switched to a new active state")
+                .tag("state", "inactive")
+                .register(registry);
+    }
+
+    public void login(LoginOutcome outcome) {
+        logins[outcome.ordinal()].increment();
+    }
+
+    public void passwordChange(PasswordChangeOutcome outcome) {
+        passwordChanges[outcome.ordinal()].increment();
+    }
+
+    /**
+     * Count users whose state actually changed (single or bulk)
+     */
+    public void statusChanged(boolean active, int users) {
+        if (users > 0) {
+            (active ? activations : deactivations).increment(users);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.demo.services;
+
+import com.example.demo.config.UserListProperties;
+import com.example.demo.dtos.UserDto;
+import com.example.demo.dtos.UserListVersion;
+import com.example.demo.dtos.UserPageDto;
+import com.example.demo.dtos.VersionedUserDto;
+import com.example.demo.repositories.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Read-side service for users
+ *
+ * Every method returns UserDto projections; no User entity is loaded.
+ *
+ * This service handles:
+ * - Single-user and full-list lookups
+ * - Row versions and list fingerprints for conditional GETs (ETags)
+ * - Keyset (cursor) pagination ordered by id, (name, id) or (email, id)
+ * - Cheap total counts for large tables (exact, estimated or skipped)
+ * - Streaming every user row by row for NDJSON responses
+ */
+@Service
+@AllArgsConstructor
+@Slf4j
+public class UserQueryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Set<String> STREAM_SORTS = Set.of("name", "email", "id");
+
+    private final UserRepository userRepository;
+    private final UserListProperties listProperties;
+
+    /**
+     * Keyset pagination
+     *
+     * Cursor format:
+     * - sort=id:   "after" is the last id seen, e.g. "42"
+     * - sort=name: "after" is the last name and id seen, e.g. "John Doe,42"
+     * - sort=email: "after" is the last email and id seen, e.g. "jdoe@email.com,42"
+     *
+     * @param sort "name", "email" or "id"
+     * @param after cursor returned as "next" by the previous page, null for the first page
+     * @param limit page size, capped at MAX_PAGE_SIZE
+     * @return the page and the cursor of the following page (null when exhausted)
+     * @throws IllegalArgumentException if sort, cursor or limit are invalid
+     */
+    @Transactional(readOnly = true)
+    public UserPageDto findPage(String sort, String after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        int size = Math.min(limit, MAX_PAGE_SIZE);
+        // Fetch one extra row to know whether another page exists
+        Pageable page = PageRequest.of(0, size + 1);
+
+        List<UserDto> users;
+        if ("id".equals(sort)) {
+            users = userRepository.findPageOrderById(after == null ? 0L : parseId(after), page);
+        } else if (after == null) {
+            users = switch (sort) {
+                case "name" -> userRepository.findFirstPageOrderByName(page);
+                case "email" -> userRepository.findFirstPageOrderByEmail(page);
+                default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+            };
+        } else {
+            int comma = after.lastIndexOf(',');
+            if (comma < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+            String afterKey = after.substring(0, comma);
+            long afterId = parseId(after.substring(comma + 1));
+            users = switch (sort) {
+                case "name" -> userRepository.findPageOrderByName(afterKey, afterId, page);
+                case "email" -> userRepository.findPageOrderByEmail(afterKey, afterId, page);
+                default -> throw new IllegalArgumentException("Unsupported sort: " + sort);
+            };
+        }
+
+        boolean hasMore = users.size() > size;
+        List<UserDto> items = hasMore ? List.copyOf(users.subList(0, size)) : users;
+        String next = hasMore ? cursorOf(items.get(items.size() - 1), sort) : null;
+        return new UserPageDto(items, next);
+    }
+
+    /**
+     * Total number of users for display, according to the configured count mode
+     * In ESTIMATE mode small tables are still counted exactly
+     *
+     * @return the count, or null when counting is disabled or unavailable
+     */
+    // Not transactional on purpose: a failed estimate must not mark a surrounding transaction rollback-only
+    public UserCount countUsers() {
+        switch (listProperties.getCountMode()) {
+            case NONE:
+                return null;
+            case EXACT:
+                return new UserCount(userRepository.count(), false);
+            default:
+                Long estimate;
+                try {
+                    estimate = userRepository.estimateCount();
+                } catch (DataAccessException e) {
+                    log.debug("Row estimate unavailable, skipping count: {}", e.getMessage());
+                    return null;
+                }
+                if (estimate == null || estimate < listProperties.getExactCountThreshold()) {
+                    return new UserCount(userRepository.count(), false);
+                }
+                return new UserCount(estimate, true);
+        }
+    }
+
+    /**
+     * Single user as a read-only projection
+     *
+     * @param id User ID
+     * @return the user, or empty if it doesn't exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<UserDto> findUser(Long id) {
+        return userRepository.findDtoById(id);
+    }
+
+    /**
+     * Single user with its row version, read in one query
+     *
+     * @param id User ID
+     * @return the user and version, or empty if it doesn't exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<VersionedUserDto> findVersionedUser(Long id) {
+        return userRepository.findVersionedDtoById(id);
+    }
+
+    /**
+     * Current row version of a user, without reading its data
+     *
+     * @param id User ID
+     * @return the version, or empty if the user doesn't exist
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
+    /**
+     * All users as read-only projections, sorted by the given property,
+     * with the fingerprint of exactly these rows
+     */
+    @Transactional(readOnly = true)
+    public VersionedUserList findAllVersioned(String sort) {
+        List<VersionedUserDto> rows = userRepository.findAllVersionedDtos(Sort.by(sort));
+        List<UserDto> users = new ArrayList<>(rows.size());
+        for (VersionedUserDto row : rows) {
+            users.add(row.getUser());
+        }
+        return new VersionedUserList(users, UserListVersion.of(rows));
+    }
+
+    /**
+     * Fingerprint of the users table from one aggregate query, without reading any rows
+     */
+    @Transactional(readOnly = true)
+    public UserListVersion findListVersion() {
+        return userRepository.findListVersion();
+    }
+
+    /**
+     * Stream every user to the given sink in sort order
+     * Rows are projected straight into DTOs so the persistence context stays empty
+     *
+     * @param sort "name", "email" or "id"
+     * @param sink receives one DTO per row, in order
+     * @throws IllegalArgumentException if sort is not supported
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(String sort, Consumer<UserDto> sink) {
+        if (!STREAM_SORTS.contains(sort)) {
+            throw new IllegalArgumentException("Unsupported sort: " + sort);
+        }
+        try (Stream<UserDto> users = userRepository.streamAll(
+                "id".equals(sort) ? Sort.by("id") : Sort.by(sort, "id"))) {
+            users.forEach(sink);
+        }
+    }
+
+    public record UserCount(long total, boolean estimated) {
+    }
+
+    public record VersionedUserList(List<UserDto> users, UserListVersion version) {
+    }
+
+    private static String cursorOf(UserDto last, String sort) {
+        return switch (sort) {
+            case "name" -> last.getName() + "," + last.getId();
+            case "email" -> last.getEmail() + "," + last.getId();
+            default -> String.valueOf(last.getId());
+        };
+    }
+
+    public static boolean isStreamSort(String sort) {
+        return STREAM_SORTS.contains(sort);
+    }
+
+    private static long parseId(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor id: " + value);
+        }
+    }
+}
@@ -0,0 +1,649 @@
+package com.example.demo.services;
+
+import com.example.demo.config.UserSearchProperties;
+import com.example.demo.dtos.UserDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix and fuzzy search over user names and emails
+ *
+ * Every word of the name and email (a run of letters and digits, lower-cased) is cut into
+ * trigrams padded at the start: "john" gives "  j", " jo", "joh" and "ohn". Each trigram maps
+ * to a sorted int[] posting list of document numbers. A query word matches when it is the
+ * prefix of a user's word, so results come from the first character typed.
+ *
+ * A query runs in two passes, both ranking at most maxCandidates documents into a top-k heap:
+ * - Prefix: documents in the posting lists of the two rarest trigrams of every query word
+ *   (scoring checks the rest). The shortest list is walked and the others are probed with
+ *   forward-only cursors, since all lists are in document order. The pass stops early once
+ *   k hits have the best score a query can get.
+ * - Fuzzy, when the prefix pass found fewer than k: query words of 4+ characters may be one
+ *   edit (or one swap of adjacent letters) away. A swap changes at most 4 trigrams, so a
+ *   candidate must still be in all but 4 lists per such word.
+ * Equal scores rank by user id.
+ *
+ * The index is built from the database once the application is ready, and kept current by
+ * UserSearchIndexSubscriber from the committed user_events through put, remove and setActive.
+ * Every instance follows all changes, including those written by other instances.
+ *
+ * Searches share a read lock and writes take the write lock. Renamed and deleted users leave
+ * dead documents behind, and the index is compacted once they make up a quarter of it.
+ */
+@Component
+@Slf4j
+public class UserSearchIndex {
+
+    private static final char PAD = ' ';
+    private static final int GRAMS_PER_EDIT = 4;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_WORD_SCORE = 5;
+    private static final int MIN_DEAD_TO_COMPACT = 1024;
+    private static final int DENSE_LIST_SHARE = 8;
+
+    private static final Comparator<IntList> BY_SIZE = Comparator.comparingInt(IntList::size);
+    private static final Comparator<Hit> BEST_FIRST = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparingLong(hit -> hit.user().getId());
+
+    private final UserSearchProperties properties;
+    private final UserQueryService userQueryService;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Map<Long, IntList> postings;
+    private UserDto[] documents;
+    private int documentCount;
+    private int deadCount;
+    private LongIntMap documentsByUserId;
+
+    public UserSearchIndex(UserSearchProperties properties, UserQueryService userQueryService) {
+        this.properties = properties;
+        this.userQueryService = userQueryService;
+        clear();
+    }
+
+    /**
+     * Index every user from the database, replacing the current content
+     * Writes arriving meanwhile wait for the lock and are applied on top.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            clear();
+            userQueryService.streamAll("id", this::append);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("User search index built: {} users in {} ms", size(), (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Best matches for a query, best first
+     *
+     * @param query words to match as prefixes of name or email words, in any order
+     * @param limit number of results, null for the default; capped at the configured maximum
+     */
+    public List<UserDto> search(String query, Integer limit) {
+        int k = Math.min(limit == null ? properties.getDefaultLimit() : limit, properties.getMaxLimit());
+        List<String> words = words(query);
+        if (words.isEmpty() || k < 1) {
+            return List.of();
+        }
+        int fuzzyWords = 0;
+        for (String word : words) {
+            if (word.length() >= MIN_FUZZY_LENGTH) {
+                fuzzyWords++;
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<IntList> all = new LinkedHashSet<>();
+            Set<IntList> rarest = new LinkedHashSet<>();
+            for (String word : words) {
+                List<IntList> wordLists = new ArrayList<>();
+                for (long gram : grams(word)) {
+                    wordLists.add(postings.getOrDefault(gram, IntList.EMPTY));
+                }
+                wordLists.sort(BY_SIZE);
+                all.addAll(wordLists);
+                // Later trigrams of a word mostly repeat what its rarest two already filtered
+                rarest.addAll(wordLists.subList(0, Math.min(2, wordLists.size())));
+            }
+            IntList[] lists = sortedBySize(all);
+            IntList[] prefixLists = sortedBySize(rarest);
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+            BitSet done = new BitSet();
+            int budget = properties.getMaxCandidates();
+            budget = collect(prefixLists, 1, prefixLists.length, words, false, best, done, budget, k);
+            if (best.size() < k && fuzzyWords > 0) {
+                int required = Math.max(1, lists.length - GRAMS_PER_EDIT * fuzzyWords);
+                // A document in at least "required" lists is in one of the shortest (length - required + 1)
+                collect(lists, lists.length - required + 1, required, words, true, best, done, budget, k);
+            }
+
+            Hit[] hits = best.toArray(new Hit[0]);
+            Arrays.sort(hits, BEST_FIRST);
+            List<UserDto> results = new ArrayList<>(hits.length);
+            for (Hit hit : hits) {
+                results.add(hit.user());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a user or replace its previous version
+     */
+    public void put(UserDto user) {
+        lock.writeLock().lock();
+        try {
+            int existing = documentsByUserId.get(user.getId());
+            if (existing >= 0) {
+                UserDto current = documents[existing];
+                if (Objects.equals(current.getName(), user.getName()) && Objects.equals(current.getEmail(), user.getEmail())) {
+                    // Same words, so the postings stay valid
+                    documents[existing] = user;
+                    return;
+                }
+                kill(existing);
+            }
+            append(user);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long userId) {
+        lock.writeLock().lock();
+        try {
+            int doc = documentsByUserId.get(userId);
+            if (doc >= 0) {
+                kill(doc);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Update the active flag of indexed users; unknown ids are ignored
+     */
+    public void setActive(Collection<Long> userIds, boolean active) {
+        lock.writeLock().lock();
+        try {
+            for (Long userId : userIds) {
+                int doc = documentsByUserId.get(userId);
+                if (doc >= 0 && !Boolean.valueOf(active).equals(documents[doc].getActive())) {
+                    UserDto user = documents[doc];
+                    documents[doc] = new UserDto(user.getId(), user.getName(), user.getEmail(), active);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of users indexed
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount - deadCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rank documents taken from the first "sources" lists that appear in at least "required" lists
+     *
+     * @param done documents already ranked, or rejected by the fuzzy pass
+     * @return the candidate budget left
+     */
+    private int collect(IntList[] lists, int sources, int required, List<String> words, boolean fuzzy,
+                        PriorityQueue<Hit> best, BitSet done, int budget, int k) {
+        int topScore = MAX_WORD_SCORE * words.size();
+        int[] cursors = new int[lists.length];
+        for (int s = 0; s < sources && budget > 0; s++) {
+            IntList source = lists[s];
+            Arrays.fill(cursors, 0);
+            for (int i = 0; i < source.size() && budget > 0; i++) {
+                int doc = source.get(i);
+                UserDto user = documents[doc];
+                if (user == null || done.get(doc) || !inAtLeast(lists, cursors, s, doc, required)) {
+                    continue;
+                }
+                budget--;
+                int score = score(user, words, fuzzy);
+                // A prefix-pass reject may still be a fuzzy match; a fuzzy-pass reject is final
+                if (score > 0 || fuzzy) {
+                    done.set(doc);
+                }
+                if (score == 0) {
+                    continue;
+                }
+                if (best.size() < k) {
+                    best.add(new Hit(user, score));
+                } else if (score >= best.peek().score()) {
+                    Hit hit = new Hit(user, score);
+                    if (BEST_FIRST.compare(hit, best.peek()) < 0) {
+                        best.poll();
+                        best.add(hit);
+                    }
+                }
+                if (!fuzzy && best.size() == k && best.peek().score() == topScore) {
+                    break;
+                }
+            }
+        }
+        return budget;
+    }
+
+    /**
+     * True when the document is in at least "required" lists and in none of the sources before
+     * the current one (it was considered with them already). Cursors only move forward.
+     * Dense lists are not probed, so this may let through documents that scoring then rejects.
+     */
+    private boolean inAtLeast(IntList[] lists, int[] cursors, int source, int doc, int required) {
+        int found = 1;
+        for (int i = 0; i < lists.length; i++) {
+            if (i == source) {
+                continue;
+            }
+            if (found >= required && i > source) {
+                return true;
+            }
+            if (i > source && isDense(lists[i])) {
+                // Nearly every document is there: count it and leave the check to scoring
+                found++;
+                continue;
+            }
+            cursors[i] = lists[i].seek(cursors[i], doc);
+            boolean contains = cursors[i] < lists[i].size() && lists[i].get(cursors[i]) == doc;
+            if (contains && i < source) {
+                return false;
+            }
+            if (contains) {
+                found++;
+            } else if (found + lists.length - i - 1 < required && i >= source) {
+                return false;
+            }
+        }
+        return found >= required;
+    }
+
+    private boolean isDense(IntList list) {
+        return list.size() > documentCount / DENSE_LIST_SHARE;
+    }
+
+    /**
+     * Sum over the query words of their best match, 0 if any word matches nothing
+     * Per word: 4 = a whole word, 3 = a word prefix, 1 = one edit from a word prefix (fuzzy only);
+     * one more when the match is in the name rather than the email
+     */
+    static int score(UserDto user, List<String> words, boolean fuzzy) {
+        int total = 0;
+        for (String word : words) {
+            int inName = matchScore(user.getName(), word, fuzzy);
+            // A prefix match in the name (3 + 1) already ties the best the email can give
+            int best = inName >= 3 ? inName + 1 : Math.max(inName > 0 ? inName + 1 : 0, matchScore(user.getEmail(), word, fuzzy));
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int matchScore(String text, String word, boolean fuzzy) {
+        if (text == null) {
+            return 0;
+        }
+        int best = 0;
+        int length = text.length();
+        int start = 0;
+        while (start < length) {
+            if (!isWordChar(text.charAt(start))) {
+                start++;
+                continue;
+            }
+            int end = start + 1;
+            while (end < length && isWordChar(text.charAt(end))) {
+                end++;
+            }
+            if (end - start >= word.length() && text.regionMatches(true, start, word, 0, word.length())) {
+                if (end - start == word.length()) {
+                    return 4;
+                }
+                best = 3;
+            } else if (fuzzy && best == 0 && word.length() >= MIN_FUZZY_LENGTH && isOneEditFromPrefix(text, start, word)) {
+                best = 1;
+            }
+            start = end;
+        }
+        return best;
+    }
+
+    /**
+     * True when the word is within one edit (insert, delete, substitute or swap of adjacent
+     * characters) of some prefix of the text word starting at the given index
+     */
+    static boolean isOneEditFromPrefix(String text, int start, String word) {
+        // One edit keeps one of the first two characters of each side in the other's first two
+        char first = Character.toLowerCase(text.charAt(start));
+        char second = start + 1 < text.length() ? Character.toLowerCase(text.charAt(start + 1)) : PAD;
+        if (first != word.charAt(0) && first != word.charAt(1) && second != word.charAt(0) && second != word.charAt(1)) {
+            return false;
+        }
+        int end = start;
+        while (end < text.length() && isWordChar(text.charAt(end))) {
+            end++;
+        }
+        int n = word.length();
+        // Prefixes longer than the word plus one are more than one edit away
+        int m = Math.min(end - start, n + 1);
+        int[] beforePrevious = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            char a = word.charAt(i - 1);
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                char b = Character.toLowerCase(text.charAt(start + j - 1));
+                int distance = Math.min(Math.min(previous[j], current[j - 1]) + 1, previous[j - 1] + (a == b ? 0 : 1));
+                if (i > 1 && j > 1 && a == Character.toLowerCase(text.charAt(start + j - 2)) && word.charAt(i - 2) == b) {
+                    distance = Math.min(distance, beforePrevious[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > 1) {
+                return false;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        for (int j = 0; j <= m; j++) {
+            if (previous[j] <= 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void append(UserDto user) {
+        if (documentCount == documents.length) {
+            documents = Arrays.copyOf(documents, documentCount * 2);
+        }
+        int doc = documentCount++;
+        documents[doc] = user;
+        documentsByUserId.put(user.getId(), doc);
+        addGrams(user.getName(), doc);
+        addGrams(user.getEmail(), doc);
+    }
+
+    private void addGrams(String text, int doc) {
+        if (text == null) {
+            return;
+        }
+        char first = PAD;
+        char second = PAD;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!isWordChar(c)) {
+                first = PAD;
+                second = PAD;
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            postings.computeIfAbsent(gram(first, second, c), key -> new IntList()).addLast(doc);
+            first = second;
+            second = c;
+        }
+    }
+
+    private void kill(int doc) {
+        documentsByUserId.put(documents[doc].getId(), -1);
+        documents[doc] = null;
+        deadCount++;
+    }
+
+    private void compactIfNeeded() {
+        if (deadCount < MIN_DEAD_TO_COMPACT || deadCount * 4L < documentCount) {
+            return;
+        }
+        UserDto[] previous = documents;
+        int previousCount = documentCount;
+        clear();
+        for (int doc = 0; doc < previousCount; doc++) {
+            if (previous[doc] != null) {
+                append(previous[doc]);
+            }
+        }
+    }
+
+    private void clear() {
+        postings = new HashMap<>();
+        documents = new UserDto[1024];
+        documentCount = 0;
+        deadCount = 0;
+        documentsByUserId = new LongIntMap();
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, without repeats
+     */
+    static List<String> words(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= query.length(); i++) {
+            if (i < query.length() && isWordChar(query.charAt(i))) {
+                // Per character, exactly like the indexed text
+                word.append(Character.toLowerCase(query.charAt(i)));
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return List.copyOf(words);
+    }
+
+    /**
+     * Trigrams of a query word, as indexed
+     */
+    private static long[] grams(String word) {
+        long[] grams = new long[word.length()];
+        char first = PAD;
+        char second = PAD;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            grams[i] = gram(first, second, c);
+            first = second;
+            second = c;
+        }
+        return grams;
+    }
+
+    private static IntList[] sortedBySize(Collection<IntList> lists) {
+        IntList[] sorted = lists.toArray(new IntList[0]);
+        Arrays.sort(sorted, BY_SIZE);
+        return sorted;
+    }
+
+    private static long gram(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    private static boolean isWordChar(char c) {
+        if (c < 128) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+        }
+        return Character.isLetterOrDigit(c);
+    }
+
+    private record Hit(UserDto user, int score) {
+    }
+
+    /**
+     * Growable int[] kept in ascending order by appending increasing document numbers
+     */
+    private static final class IntList {
+        static final IntList EMPTY = new IntList(0);
+
+        private int[] values;
+        private int size;
+
+        IntList() {
+            this(4);
+        }
+
+        IntList(int capacity) {
+            this.values = new int[capacity];
+        }
+
+        /**
+         * Append unless already the last value (a word repeating a trigram of the same document)
+         */
+        void addLast(int value) {
+            if (size > 0 && values[size - 1] == value) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size + Math.max(4, size >> 1));
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * Index of the first value >= target, searching from "from" with growing steps
+         */
+        int seek(int from, int target) {
+            int low = from;
+            int step = 1;
+            int high = from;
+            while (high < size && values[high] < target) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < target) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Open-addressing long -> int map without boxing; get returns -1 for absent keys
+     * Keys are never removed: a removed user is stored as -1 until the next compaction.
+     */
+    private static final class LongIntMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        LongIntMap() {
+            allocate(1024);
+        }
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                if (keys[i] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldValues = values;
+                allocate(keys.length * 2);
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldKeys[i] != EMPTY) {
+                        put(oldKeys[i], oldValues[i]);
+                    }
+                }
+            }
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new int[capacity];
+            size = 0;
+        }
+
+        private static int slot(long key, int mask) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -1,29 +1,70 @@
 package com.example.demo.services;
 
+import com.example.demo.audit.AuditAction;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.dtos.BulkStatusChangeResultDto;
 import com.example.demo.dtos.UserDto;
 import com.example.demo.entities.User;
+import com.example.demo.events.UserEventPublisher;
+import com.example.demo.events.UserEventType;
 import com.example.demo.exceptions.*;
 import com.example.demo.mappers.UserMapper;
 import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.PasswordPolicy;
+import com.example.demo.security.PasswordService;
+import com.example.demo.security.SessionStore;
+import com.example.demo.services.UserMetrics.LoginOutcome;
+import com.example.demo.services.UserMetrics.PasswordChangeOutcome;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service layer for User business logic
  *
  * This service handles:
- * - User authentication (login)
+ * - User authentication (login) against hashed passwords
  * - Password change with validation
- * - User account status management (activate/deactivate)
+ * - User account status management (activate/deactivate, single and bulk)
+ *
+ * Every change is recorded in the user_events outbox within its own transaction; the search
+ * index and email cache follow from those events, login sessions end once the change commits.
+ * Logins, password changes and status changes, successful or not, go to the audit log,
+ * which writes asynchronously; a successful change is recorded only once it has committed.
+ *
+ * Every public method is timed ("users.service", tagged by method); outcomes are counted by UserMetrics.
  */
 @Service
+@Timed(value = "users.service", description = "UserService call latency")
 @AllArgsConstructor
 @Slf4j
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserEmailCache userEmailCache;
+    private final PasswordService passwordService;
+    private final LoginThrottle loginThrottle;
+    private final PasswordPolicy passwordPolicy;
+    private final UserMetrics userMetrics;
+    private final SessionStore sessionStore;
+    private final UserEventPublisher userEventPublisher;
+    private final AuditLog auditLog;
+
+    // Ids per UPDATE ... WHERE id IN (...) statement
+    private static final int BULK_ID_CHUNK = 1000;
 
     /**
      * SERVICE 1: User Login
@@ -31,7 +72,8 @@ public class UserService {
      * Business Logic:
      * - Verify user exists by email
      * - Check if user account is active
-     * - Validate password matches
+     * - Validate password matches the stored hash
+     * - Rehash legacy or outdated password hashes
      * - Return user DTO (without password)
      *
      * @param email User's email
@@ -40,42 +82,100 @@ public class UserService {
      * @throws UserNotFoundException if email doesn't exist
      * @throws InvalidUserStateException if user is inactive
      * @throws InvalidCredentialsException if password is incorrect
+     * @throws ServiceOverloadedException if the password hashing pool is saturated
      */
     public UserDto login(String email, String password) {
+        return login(email, password, null);
+    }
+
+    /**
+     * SERVICE 1: User Login, throttled per email and per client IP
+     *
+     * @param clientIp remote address of the caller, null if unknown
+     * @throws LoginThrottledException if there were too many recent failures for the email or IP
+     * @see #login(String, String)
+     */
+    public UserDto login(String email, String password, String clientIp) {
         log.info("Login attempt for email: {}", email);
 
-        // Find user by email
-        User user = userRepository.findByEmail(email)
+        // Reject throttled attempts before touching the database
+        if (loginThrottle.isThrottled(email, clientIp)) {
+            log.warn("Login throttled for email: {} from {}", email, clientIp);
+            userMetrics.login(LoginOutcome.THROTTLED);
+            auditLog.record(AuditAction.LOGIN_THROTTLED, null, email, clientIp, null);
+            throw new LoginThrottledException("Too many failed login attempts, please try again later");
+        }
+
+        // Find user by email (primary-key lookup when the email is cached)
+        User user = findByEmailCached(email)
             .orElseThrow(() -> {
                 log.warn("Login failed: User not found - {}", email);
+                loginThrottle.recordFailure(email, clientIp);
+                userMetrics.login(LoginOutcome.UNKNOWN_EMAIL);
+                auditLog.record(AuditAction.LOGIN_FAILED, null, email, clientIp, "unknown_email");
                 return new UserNotFoundException("Invalid email or password");
             });
 
         // Check if user is active
         if (!user.getActive()) {
             log.warn("Login failed: User account is inactive - {}", email);
+            userMetrics.login(LoginOutcome.INACTIVE);
+            auditLog.record(AuditAction.LOGIN_FAILED, user.getId(), email, clientIp, "inactive");
             throw new InvalidUserStateException("User account is deactivated");
         }
 
-        // Verify password
-        if (!user.getPassword().equals(password)) {
+        // Verify password (hashed on the bounded hashing pool)
+        if (!passwordService.matches(password, user.getPassword())) {
             log.warn("Login failed: Invalid password for user - {}", email);
+            loginThrottle.recordFailure(email, clientIp);
+            userMetrics.login(LoginOutcome.BAD_PASSWORD);
+            auditLog.record(AuditAction.LOGIN_FAILED, user.getId(), email, clientIp, "bad_password");
             throw new InvalidCredentialsException("Invalid email or password");
         }
 
+        // Upgrade legacy plaintext or outdated hashes now that we know the raw password
+        if (passwordService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordService.hash(password));
+            userRepository.save(user);
+            log.info("Password hash upgraded for user: {}", email);
+        }
+
+        loginThrottle.recordSuccess(email);
+        userMetrics.login(LoginOutcome.SUCCESS);
+        auditLog.record(AuditAction.LOGIN_SUCCEEDED, user.getId(), email, clientIp, null);
         log.info("Login successful for user: {}", email);
         return userMapper.toDto(user);
     }
 
+    /**
+     * Resolve a user by email through the email -> id cache
+     * A cached id whose row no longer carries that email is dropped and looked up again
+     */
+    private Optional<User> findByEmailCached(String email) {
+        String normalized = UserEmailCache.normalize(email);
+        Long cachedId = userEmailCache.get(normalized);
+        if (cachedId != null) {
+            Optional<User> cached = userRepository.findById(cachedId)
+                .filter(u -> normalized.equals(UserEmailCache.normalize(u.getEmail())));
+            if (cached.isPresent()) {
+                return cached;
+            }
+            userEmailCache.invalidate(normalized);
+        }
+        Optional<User> user = userRepository.findByEmail(normalized);
+        user.ifPresent(u -> userEmailCache.put(normalized, u.getId()));
+        return user;
+    }
+
     /**
      * SERVICE 2: Change Password
      *
      * Business Logic:
      * - Verify user exists
      * - Verify old password is correct
-     * - Validate new password strength (min 8 characters)
-     * - Ensure new password is different from old
-     * - Update password
+     * - Validate the new password against the password policy (length, character classes,
+     *   deny-list, distance from the old password), reporting all violations together
+     * - Update password (hashed)
      *
      * @param userId User ID
      * @param oldPassword Current password
@@ -84,6 +184,7 @@ public class UserService {
      * @throws UserNotFoundException if user doesn't exist
      * @throws InvalidCredentialsException if old password is incorrect
      * @throws WeakPasswordException if new password doesn't meet requirements
+     * @throws ServiceOverloadedException if the password hashing pool is saturated
      */
     @Transactional
     public UserDto changePassword(Long userId, String oldPassword, String newPassword) {
@@ -91,43 +192,39 @@ public class UserService {
 
         // Find user
         User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+            .orElseThrow(() -> {
+                userMetrics.passwordChange(PasswordChangeOutcome.NOT_FOUND);
+                auditLog.record(AuditAction.PASSWORD_CHANGE_FAILED, userId, null, null, "not_found");
+                return new UserNotFoundException("User not found with id: " + userId);
+            });
 
         // Verify old password
-        if (!user.getPassword().equals(oldPassword)) {
+        if (!passwordService.matches(oldPassword, user.getPassword())) {
             log.warn("Password change failed: Incorrect old password for user id: {}", userId);
+            userMetrics.passwordChange(PasswordChangeOutcome.BAD_CURRENT_PASSWORD);
+            auditLog.record(AuditAction.PASSWORD_CHANGE_FAILED, userId, null, null, "bad_current_password");
            throw new InvalidCredentialsException("Current password is incorrect");
         }
 
-        // Validate new password is different
-        if (oldPassword.equals(newPassword)) {
-            log.warn("Password change failed: New password same as old for user id: {}", userId);
-            throw new WeakPasswordException("New password must be different from current password");
-        }
-
-        // Validate password strength (minimum 8 characters)
-        if (newPassword == null || newPassword.length() < 8) {
-            log.warn("Password change failed: Password too weak for user id: {}", userId);
-            throw new WeakPasswordException("Password must be at least 8 characters long");
-        }
-
-        // Additional password strength checks
-        if (!newPassword.matches(".*[A-Z].*")) {
-            throw new WeakPasswordException("Password must contain at least one uppercase letter");
-        }
-        if (!newPassword.matches(".*[a-z].*")) {
-            throw new WeakPasswordException("Password must contain at least one lowercase letter");
-        }
-        if (!newPassword.matches(".*\\d.*")) {
-            throw new WeakPasswordException("Password must contain at least one digit");
+        // Validate the new password against every policy rule at once
+        List<String> violations = passwordPolicy.validate(newPassword, oldPassword);
+        if (!violations.isEmpty()) {
+            log.warn("Password change failed: {} policy violation(s) for user id: {}", violations.size(), userId);
+            userMetrics.passwordChange(PasswordChangeOutcome.POLICY_VIOLATION);
+            auditLog.record(AuditAction.PASSWORD_CHANGE_FAILED, userId, null, null, "policy_violation");
+            throw new WeakPasswordException(violations);
         }
 
-        // Update password
-        user.setPassword(newPassword);
+        // Update password (stored hashed)
+        user.setPassword(passwordService.hash(newPassword));
         User updated = userRepository.save(user);
+        UserDto result = userMapper.toDto(updated);
+        userEventPublisher.publish(UserEventType.PASSWORD_CHANGED, result);
 
+        userMetrics.passwordChange(PasswordChangeOutcome.SUCCESS);
+        afterCommit(() -> auditLog.record(AuditAction.PASSWORD_CHANGED, userId, null, null, null));
         log.info("Password changed successfully for user id: {}", userId);
-        return userMapper.toDto(updated);
+        return result;
     }
 
     /**
@@ -157,9 +254,13 @@ public class UserService {
 
         user.setActive(true);
         User updated = userRepository.save(user);
+        UserDto result = userMapper.toDto(updated);
+        userEventPublisher.publish(UserEventType.ACTIVATED, result);
 
+        userMetrics.statusChanged(true, 1);
+        afterCommit(() -> auditLog.record(AuditAction.USER_ACTIVATED, userId, null, null, null));
         log.info("User activated successfully: {}", userId);
-        return userMapper.toDto(updated);
+        return result;
     }
 
     /**
@@ -169,6 +270,7 @@ public class UserService {
      * - Verify user exists
      * - Check if user is already inactive
      * - Deactivate user account
+     * - End the user's login sessions immediately
      *
      * @param userId User ID
      * @return Updated UserDto
@@ -189,9 +291,107 @@ public class UserService {
 
         user.setActive(false);
         User updated = userRepository.save(user);
+        afterCommit(() -> sessionStore.deactivateUsers(List.of(userId)));
+        UserDto result = userMapper.toDto(updated);
+        userEventPublisher.publish(UserEventType.DEACTIVATED, result);
 
+        userMetrics.statusChanged(false, 1);
+        afterCommit(() -> auditLog.record(AuditAction.USER_DEACTIVATED, userId, null, null, null));
         log.info("User deactivated successfully: {}", userId);
-        return userMapper.toDto(updated);
+        return result;
     }
-}
 
+    /**
+     * SERVICE 3C: Bulk Activate / Deactivate by id
+     *
+     * Business Logic:
+     * - Users already in the target state are reported, not treated as errors
+     * - Unknown ids are reported
+     * - Everyone else is switched with a single UPDATE per chunk of ids
+     * - Deactivated users' login sessions end immediately
+     *
+     * @param userIds User IDs
+     * @param active target state
+     * @return counts plus the ids already in state and the ids not found
+     */
+    @Transactional
+    public BulkStatusChangeResultDto setActive(Collection<Long> userIds, boolean active) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        log.info("Bulk {} of {} users", active ? "activation" : "deactivation", ids.size());
+
+        Set<Long> existing = new HashSet<>();
+        List<Long> alreadyInState = new ArrayList<>();
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BULK_ID_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_ID_CHUNK, ids.size()));
+            existing.addAll(userRepository.findExistingIds(chunk));
+            alreadyInState.addAll(userRepository.findIdsInState(chunk, active));
+            updated += userRepository.updateActiveByIds(chunk, active);
+        }
+        List<Long> notFound = ids.stream().filter(id -> !existing.contains(id)).toList();
+        if (!active) {
+            afterCommit(() -> sessionStore.deactivateUsers(ids));
+        }
+        Set<Long> unchanged = new HashSet<>(alreadyInState);
+        userEventPublisher.publishStatusChange(
+            ids.stream().filter(id -> existing.contains(id) && !unchanged.contains(id)).toList(), active);
+        userMetrics.statusChanged(active, updated);
+        String detail = "ids: " + ids.size() + ", updated: " + updated;
+        afterCommit(() -> auditLog.record(active ? AuditAction.USERS_ACTIVATED : AuditAction.USERS_DEACTIVATED,
+            null, null, null, detail));
+
+        log.info("Bulk status change: {} updated, {} already {}, {} not found",
+            updated, alreadyInState.size(), active ? "active" : "inactive", notFound.size());
+        return new BulkStatusChangeResultDto(updated, alreadyInState.size(), alreadyInState, notFound);
+    }
+
+    /**
+     * SERVICE 3D: Bulk Activate / Deactivate by email domain
+     * Deactivated users' login sessions end immediately
+     *
+     * @param emailDomain domain part of the email, e.g. "example.com"
+     * @param active target state
+     * @return counts only; id lists are left empty since they can be arbitrarily large
+     */
+    @Transactional
+    public BulkStatusChangeResultDto setActiveByEmailDomain(String emailDomain, boolean active) {
+        String pattern = "%@" + emailDomain.trim()
+            .replace("!", "!!")
+            .replace("%", "!%")
+            .replace("_", "!_");
+        log.info("Bulk {} of users in domain: {}", active ? "activation" : "deactivation", emailDomain);
+
+        long alreadyInState = userRepository.countByEmailLikeInState(pattern, active);
+        // Ids of the users about to be switched, for their events and to end their sessions
+        List<Long> switching = userRepository.findIdsByEmailLikeInState(pattern, !active);
+        int updated = userRepository.updateActiveByEmailLike(pattern, active);
+        if (!active) {
+            afterCommit(() -> sessionStore.deactivateUsers(switching));
+        }
+        userEventPublisher.publishStatusChange(switching, active);
+        userMetrics.statusChanged(active, updated);
+        String detail = "domain: " + emailDomain.trim() + ", updated: " + updated;
+        afterCommit(() -> auditLog.record(active ? AuditAction.USERS_ACTIVATED : AuditAction.USERS_DEACTIVATED,
+            null, null, null, detail));
+
+        log.info("Bulk status change: {} updated, {} already {}", updated, alreadyInState, active ? "active" : "inactive");
+        return new BulkStatusChangeResultDto(updated, (int) alreadyInState, List.of(), List.of());
+    }
+
+    /**
+     * Run an action once the current transaction commits, or now if there is none
+     * A rolled-back change must not leave its mark on in-memory state
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
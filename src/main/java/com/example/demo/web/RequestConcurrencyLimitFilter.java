@@ -0,0 +1,132 @@
+package com.example.demo.web;
+
+import com.example.demo.config.VirtualThreadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of requests in flight when requests run on virtual threads
+ *
+ * With platform threads the Tomcat pool bounds concurrency; with virtual threads every
+ * accepted connection gets a thread, and a burst turns into thousands of threads
+ * waiting on the (much smaller) JDBC pool until they time out. This filter restores
+ * a bound: excess requests wait briefly for a permit, then fail fast with 503.
+ * Async requests keep their permit until they complete, time out or fail.
+ * Actuator endpoints are not limited so health checks keep answering under load.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class RequestConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final long acquireTimeoutNanos;
+    private final Counter rejected;
+
+    public RequestConcurrencyLimitFilter(VirtualThreadProperties properties, MeterRegistry registry) {
+        this.maxConcurrentRequests = properties.getMaxConcurrentRequests();
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.acquireTimeoutNanos = properties.getAcquireTimeout().toNanos();
+        this.rejected = Counter.builder("http.server.requests.rejected")
+                .description("Requests refused because the concurrency limit was reached")
+                .register(registry);
+        Gauge.builder("http.server.requests.inflight", this, RequestConcurrencyLimitFilter::getInFlight)
+                .description("Requests currently holding a concurrency permit")
+                .register(registry);
+    }
+
+    public int getInFlight() {
+        return maxConcurrentRequests - permits.availablePermits();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            log.debug("Rejected {} {}: {} requests in flight", request.getMethod(), request.getRequestURI(), maxConcurrentRequests);
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server is busy, please try again shortly");
+            return;
+        }
+        boolean releaseLater = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Still in flight (async result, streaming body): hold the permit until it ends
+                request.getAsyncContext().addListener(new ReleaseOnCompletion());
+                releaseLater = true;
+            }
+        } finally {
+            if (!releaseLater) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Releases the permit of an async request once, whichever way it ends
+     */
+    private class ReleaseOnCompletion implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Async restarted from a dispatch: listeners must register again to stay notified
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
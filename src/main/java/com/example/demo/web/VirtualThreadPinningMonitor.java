@@ -0,0 +1,89 @@
+package com.example.demo.web;
+
+import com.example.demo.config.VirtualThreadProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads pinned to their carrier (blocking inside synchronized or native code)
+ *
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process. Every pin above the
+ * threshold is counted; the stack is logged once per distinct blocking site, since a
+ * pinning JDBC path pins on every call.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+    private static final int MAX_LOGGED_SITES = 100;
+
+    private final VirtualThreadProperties properties;
+    private final Counter pinned;
+    private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(VirtualThreadProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.getPinningThreshold()).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        String stack = describe(event.getStackTrace());
+        if (loggedSites.size() < MAX_LOGGED_SITES && loggedSites.add(stack)) {
+            log.warn("Virtual thread pinned for {} ms:{}", event.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return " (no stack trace)";
+        }
+        StringBuilder description = new StringBuilder();
+        int frames = 0;
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frames++ == LOGGED_FRAMES) {
+                description.append("\n\tat ...");
+                break;
+            }
+            description.append("\n\tat ")
+                    .append(frame.getMethod().getType().getName())
+                    .append('.')
+                    .append(frame.getMethod().getName())
+                    .append(':')
+                    .append(frame.getLineNumber());
+        }
+        return description.toString();
+    }
+}
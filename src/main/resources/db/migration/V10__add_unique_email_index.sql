@@ -0,0 +1,6 @@
+-- Login looks users up by email: make that lookup an index seek and forbid duplicates.
+-- The unique index also serves the (email, id) keyset ordering, since InnoDB
+-- secondary indexes carry the primary key.
+DROP INDEX users_email_id_index ON users;
+
+CREATE UNIQUE INDEX users_email_unique ON users (email);
@@ -0,0 +1,16 @@
+-- Pooled id allocation for users and addresses.
+-- IDENTITY columns force Hibernate to insert rows one at a time to read back the key;
+-- ids handed out in blocks of 50 from this table let inserts be JDBC-batched.
+CREATE TABLE id_generators
+(
+    gen_name VARCHAR(64) NOT NULL
+        PRIMARY KEY,
+    next_val BIGINT      NOT NULL
+);
+
+-- Start above every existing id (plus one allocation block, which the pooled optimizer counts down from)
+INSERT INTO id_generators (gen_name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 51 FROM users;
+
+INSERT INTO id_generators (gen_name, next_val)
+SELECT 'addresses', COALESCE(MAX(id), 0) + 51 FROM addresses;
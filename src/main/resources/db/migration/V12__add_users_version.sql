@@ -0,0 +1,3 @@
+-- Optimistic-locking version for users.
+-- Incremented by every update, so it also serves as the ETag of a user resource.
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,17 @@
+-- Login sessions for app.security.sessions.store=jdbc, shared by every application instance.
+-- Only a hash of the session cookie is stored; a user's sessions go when the user is deleted.
+CREATE TABLE user_sessions
+(
+    token_hash CHAR(43) NOT NULL
+        PRIMARY KEY,
+    user_id    BIGINT   NOT NULL,
+    active     BOOLEAN  NOT NULL,
+    expires_at BIGINT   NOT NULL,
+    CONSTRAINT user_sessions_users_id_fk
+        FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX user_sessions_user_id_index ON user_sessions (user_id);
+
+-- Expired-session cleanup
+CREATE INDEX user_sessions_expires_at_index ON user_sessions (expires_at);
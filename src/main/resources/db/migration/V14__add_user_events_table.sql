@@ -0,0 +1,18 @@
+-- Outbox of user changes, written in the same transaction as the change itself.
+-- The dispatcher delivers rows in id order and stamps published_at; published rows are
+-- purged after the retention period. No foreign key: a user's events outlive the user.
+CREATE TABLE user_events
+(
+    id           BIGINT       NOT NULL AUTO_INCREMENT
+        PRIMARY KEY,
+    user_id      BIGINT       NOT NULL,
+    type         VARCHAR(32)  NOT NULL,
+    name         VARCHAR(255) NULL,
+    email        VARCHAR(255) NULL,
+    active       BOOLEAN      NULL,
+    occurred_at  BIGINT       NOT NULL,
+    published_at BIGINT       NULL
+);
+
+-- Pending events in id order (InnoDB secondary indexes end with the primary key)
+CREATE INDEX user_events_published_at_index ON user_events (published_at);
@@ -0,0 +1,16 @@
+-- Audit trail for app.audit.sink=jdbc: rows are only ever inserted, in batches.
+-- No foreign key: the trail of a user outlives the user.
+CREATE TABLE audit_log
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT
+        PRIMARY KEY,
+    occurred_at BIGINT       NOT NULL,
+    action      VARCHAR(32)  NOT NULL,
+    user_id     BIGINT       NULL,
+    email       VARCHAR(255) NULL,
+    client_ip   VARCHAR(45)  NULL,
+    detail      VARCHAR(255) NULL
+);
+
+-- Trail of one user
+CREATE INDEX audit_log_user_id_index ON audit_log (user_id);
@@ -0,0 +1,10 @@
+-- Replica lag probe for app.datasource.replica: the application writes the current time
+-- to the primary and reads it back from the replica; the difference is the lag.
+CREATE TABLE replication_heartbeat
+(
+    id      INT    NOT NULL
+        PRIMARY KEY,
+    beat_at BIGINT NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, 0);
@@ -0,0 +1,20 @@
+-- Balances are summed as BIGINT; an INT UNSIGNED column would overflow long before they do
+ALTER TABLE profiles MODIFY loyalty_points BIGINT DEFAULT 0 NULL;
+
+-- History behind profiles.loyalty_points: every balance change adds a row in the same
+-- transaction. With write-behind (app.loyalty.write-behind) one row sums the awards a
+-- user received for one reason during a flush interval.
+CREATE TABLE loyalty_points_ledger
+(
+    id         BIGINT      NOT NULL AUTO_INCREMENT
+        PRIMARY KEY,
+    user_id    BIGINT      NOT NULL,
+    points     BIGINT      NOT NULL,
+    reason     VARCHAR(50) NOT NULL,
+    created_at BIGINT      NOT NULL,
+    CONSTRAINT loyalty_points_ledger_users_id_fk
+        FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- History of one user, newest first
+CREATE INDEX loyalty_points_ledger_user_id_index ON loyalty_points_ledger (user_id, id);
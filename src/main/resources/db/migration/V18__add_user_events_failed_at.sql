@@ -0,0 +1,4 @@
+-- Events the dispatcher gave up on after app.users.events.max-attempts deliveries.
+-- They are stamped published_at too, so delivery moves on, but never purged; clearing
+-- both columns delivers them again.
+ALTER TABLE user_events ADD failed_at BIGINT NULL;
@@ -0,0 +1,2 @@
+-- Index backing keyset pagination ordered by (name, id)
+CREATE INDEX users_name_id_index ON users (name, id);
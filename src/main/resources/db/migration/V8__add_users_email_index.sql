@@ -0,0 +1,2 @@
+-- Index backing the user list sorted by (email, id)
+CREATE INDEX users_email_id_index ON users (email, id);
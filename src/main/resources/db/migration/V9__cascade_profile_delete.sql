@@ -0,0 +1,7 @@
+-- User no longer maps the inverse side of the profile association,
+-- so the database removes a user's profile when the user is deleted
+ALTER TABLE profiles DROP FOREIGN KEY profiles_users_id_fk;
+
+ALTER TABLE profiles
+    ADD CONSTRAINT profiles_users_id_fk
+        FOREIGN KEY (id) REFERENCES users (id) ON DELETE CASCADE;
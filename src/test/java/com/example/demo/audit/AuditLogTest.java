@@ -0,0 +1,226 @@
+package com.example.demo.audit;
+
+import com.example.demo.config.AuditProperties;
+import com.example.demo.config.AuditProperties.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuditLog and its ring buffer
+ *
+ * The sink keeps every batch it is given; a latch lets a test hold the writer thread
+ * inside a write while the buffer fills up.
+ */
+@DisplayName("AuditLog Tests")
+class AuditLogTest {
+
+    private final List<List<AuditRecord>> batches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private CountDownLatch writesAllowed = new CountDownLatch(0);
+    private final AuditSink sink = records -> {
+        try {
+            writesAllowed.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failuresLeft.getAndDecrement() > 0) {
+            throw new IllegalStateException("Sink failure requested by the test");
+        }
+        batches.add(List.copyOf(records));
+    };
+
+    private SimpleMeterRegistry registry;
+    private AuditProperties properties;
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new AuditProperties();
+        properties.setBufferCapacity(4);
+        properties.setBatchSize(2);
+        // Long enough that only full batches or shutdown trigger a write
+        properties.setFlushInterval(Duration.ofSeconds(30));
+        properties.setRetryDelay(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writesAllowed.countDown();
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should write records in order, a full batch at a time")
+    void record_FullBatch_ShouldBeWrittenWithoutWaitingForFlushInterval() {
+        start();
+
+        auditLog.record(AuditAction.LOGIN_SUCCEEDED, 1L, "a@example.com", "10.0.0.1", null);
+        auditLog.record(AuditAction.LOGIN_FAILED, 2L, "b@example.com", "10.0.0.2", "bad_password");
+
+        await(() -> batches.size() == 1);
+        assertEquals(List.of(AuditAction.LOGIN_SUCCEEDED, AuditAction.LOGIN_FAILED),
+                batches.get(0).stream().map(AuditRecord::action).toList());
+        assertEquals("bad_password", batches.get(0).get(1).detail());
+        assertEquals(2.0, registry.get("audit.records.written").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should write what is left on shutdown")
+    void stop_ShouldWritePendingRecords() throws InterruptedException {
+        start();
+        auditLog.record(AuditAction.PASSWORD_CHANGED, 1L, null, null, null);
+
+        auditLog.stop();
+
+        assertEquals(1, batches.size());
+        assertEquals(0, auditLog.getPending());
+    }
+
+    @Test
+    @DisplayName("Should drop and count records once the buffer is full")
+    void record_BufferFull_ShouldDropByDefault() {
+        writesAllowed = new CountDownLatch(1);
+        start();
+
+        // The writer takes the first batch and waits in the sink; 4 more fill the buffer
+        record(2);
+        await(() -> auditLog.getPending() == 0);
+        record(5);
+
+        assertEquals(1.0, registry.get("audit.records.dropped").counter().count());
+        assertEquals(4, auditLog.getPending());
+        writesAllowed.countDown();
+        await(() -> registry.get("audit.records.written").counter().count() == 6.0);
+    }
+
+    @Test
+    @DisplayName("Should wait for space under the BLOCK policy")
+    void record_BufferFullWithBlockPolicy_ShouldWaitForSpace() {
+        properties.setOverflowPolicy(OverflowPolicy.BLOCK);
+        properties.setBlockTimeout(Duration.ofSeconds(10));
+        writesAllowed = new CountDownLatch(1);
+        start();
+        record(2);
+        await(() -> auditLog.getPending() == 0);
+        record(4);
+
+        startThread(() -> {
+            sleep(100);
+            writesAllowed.countDown();
+        });
+        long startedAt = System.nanoTime();
+        record(1);
+
+        assertTrue(System.nanoTime() - startedAt >= TimeUnit.MILLISECONDS.toNanos(50), "Should have waited");
+        assertEquals(0.0, registry.get("audit.records.dropped").counter().count());
+        await(() -> registry.get("audit.records.written").counter().count() == 7.0);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed write with the same batch")
+    void record_SinkFailure_ShouldRetry() {
+        failuresLeft.set(2);
+        start();
+
+        record(2);
+
+        await(() -> batches.size() == 1);
+        assertEquals(2, batches.get(0).size());
+        assertEquals(2.0, registry.get("audit.write.failures").counter().count());
+    }
+
+    @Test
+    @DisplayName("Ring buffer should round capacity up and keep each producer's order")
+    void ringBuffer_ConcurrentProducers_ShouldDeliverEveryRecordOnce() throws InterruptedException {
+        assertEquals(8, new AuditRingBuffer(5).capacity());
+        assertEquals(8, new AuditRingBuffer(8).capacity());
+
+        AuditRingBuffer buffer = new AuditRingBuffer(64);
+        int producers = 4;
+        int perProducer = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            threads.add(startThread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    AuditRecord record = new AuditRecord(i, AuditAction.LOGIN_SUCCEEDED, producer, null, null, null);
+                    while (buffer.offer(record) < 0) {
+                        Thread.yield();
+                    }
+                }
+            }));
+        }
+
+        long[] next = new long[producers];
+        List<AuditRecord> drained = new ArrayList<>();
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            drained.clear();
+            int count = buffer.drainTo(drained, 16);
+            if (count == 0) {
+                Thread.yield();
+            }
+            received += count;
+            for (AuditRecord record : drained) {
+                int producer = record.userId().intValue();
+                assertEquals(next[producer]++, record.occurredAt(), "Records of producer " + producer);
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, received);
+        assertEquals(0, buffer.size());
+    }
+
+    private void start() {
+        auditLog = new AuditLog(sink, properties, registry);
+        auditLog.start();
+    }
+
+    private void record(int count) {
+        for (int i = 0; i < count; i++) {
+            auditLog.record(AuditAction.LOGIN_SUCCEEDED, (long) i, null, null, null);
+        }
+    }
+
+    private static Thread startThread(Runnable task) {
+        Thread thread = new Thread(task);
+        thread.start();
+        return thread;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.demo.audit;
+
+import com.example.demo.config.AuditProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FileAuditSink
+ */
+@DisplayName("FileAuditSink Tests")
+class FileAuditSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private FileAuditSink sink;
+
+    @BeforeEach
+    void setUp() {
+        file = directory.resolve("audit/audit.log");
+        AuditProperties properties = new AuditProperties();
+        properties.setFilePath(file.toString());
+        properties.setFileMaxSize(DataSize.ofBytes(200));
+        properties.setFileMaxHistory(2);
+        sink = new FileAuditSink(new ObjectMapper(), properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sink.close();
+    }
+
+    @Test
+    @DisplayName("Should append one JSON line per record")
+    void write_ShouldAppendJsonLines() throws IOException {
+        sink.write(List.of(record(1L, "bad_password")));
+        sink.write(List.of(record(2L, null)));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).contains("\"action\":\"LOGIN_FAILED\""), lines.get(0));
+        assertTrue(lines.get(0).contains("\"detail\":\"bad_password\""), lines.get(0));
+        assertTrue(lines.get(1).contains("\"userId\":2"), lines.get(1));
+    }
+
+    @Test
+    @DisplayName("Should roll over by size and keep only the configured history")
+    void write_PastMaxSize_ShouldRollOver() throws IOException {
+        for (long id = 1; id <= 8; id++) {
+            sink.write(List.of(record(id, null), record(id, null)));
+        }
+
+        assertTrue(Files.exists(file.resolveSibling("audit.log.1")));
+        assertTrue(Files.exists(file.resolveSibling("audit.log.2")));
+        assertFalse(Files.exists(file.resolveSibling("audit.log.3")));
+        assertTrue(Files.readString(file).contains("\"userId\":8"));
+        assertTrue(Files.size(file.resolveSibling("audit.log.1")) >= 200);
+    }
+
+    private static AuditRecord record(Long userId, String detail) {
+        return new AuditRecord(1_700_000_000_000L, AuditAction.LOGIN_FAILED, userId, "user@example.com",
+                "10.0.0.1", detail);
+    }
+}
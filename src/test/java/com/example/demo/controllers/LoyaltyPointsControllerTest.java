@@ -0,0 +1,159 @@
+package com.example.demo.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Loyalty points API with awards written directly (write-behind off)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Loyalty points API")
+class LoyaltyPointsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+
+    @BeforeEach
+    void createUser() throws Exception {
+        String body = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Loyalty Test\",\"email\":\"loyalty.test@example.com\",\"password\":\"L0yalty-Passw0rd\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        userId = objectMapper.readTree(body).get("id").asLong();
+    }
+
+    @AfterEach
+    void deleteUser() throws Exception {
+        mockMvc.perform(delete("/users/{id}", userId)).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("Awards create the profile, add to the balance and append to the history")
+    void award_ShouldUpdateBalanceAndHistory() throws Exception {
+        mockMvc.perform(get("/users/{id}/loyalty-points", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(0));
+
+        award(userId, 40, "purchase")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(40))
+                .andExpect(jsonPath("$.pending").value(0));
+        award(userId, 2, "referral")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(42));
+
+        mockMvc.perform(get("/users/{id}/loyalty-points/history", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].reason").value("referral"))
+                .andExpect(jsonPath("$[0].points").value(2))
+                .andExpect(jsonPath("$[1].reason").value("purchase"));
+    }
+
+    @Test
+    @DisplayName("Balances grow past the range of an int")
+    void award_BeyondIntRange_ShouldKeepCounting() throws Exception {
+        award(userId, 1, "purchase").andExpect(status().isOk());
+        jdbcTemplate.update("update profiles set loyalty_points = ? where id = ?", Integer.MAX_VALUE, userId);
+
+        award(userId, 100_000, "purchase")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(Integer.MAX_VALUE + 100_000L));
+    }
+
+    @Test
+    @DisplayName("Concurrent awards to one user are all counted")
+    void award_Concurrently_ShouldNotLoseUpdates() throws Exception {
+        int threads = 8;
+        int awardsPerThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<Integer> task = () -> {
+                    for (int i = 0; i < awardsPerThread; i++) {
+                        award(userId, 1, "streak").andExpect(status().isOk());
+                    }
+                    return awardsPerThread;
+                };
+                results.add(executor.submit(task));
+            }
+            for (Future<Integer> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        JsonNode points = objectMapper.readTree(mockMvc.perform(get("/users/{id}/loyalty-points", userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertEquals(threads * awardsPerThread, points.get("balance").asLong());
+        assertEquals(threads * awardsPerThread, jdbcTemplate.queryForObject(
+                "select count(*) from loyalty_points_ledger where user_id = ?", Integer.class, userId));
+    }
+
+    @Test
+    @DisplayName("Invalid awards are rejected and unknown users are not found")
+    void award_Invalid_ShouldBeRejected() throws Exception {
+        award(userId, 0, "purchase").andExpect(status().isBadRequest());
+        award(userId, 100_001, "purchase").andExpect(status().isBadRequest());
+        award(userId, 5, " ").andExpect(status().isBadRequest());
+        award(userId, 5, "x".repeat(51)).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/users/{id}/loyalty-points/history", userId).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        award(-1L, 5, "purchase").andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/{id}/loyalty-points", -1L)).andExpect(status().isNotFound());
+        mockMvc.perform(get("/users/{id}/loyalty-points/history", -1L)).andExpect(status().isNotFound());
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from loyalty_points_ledger where user_id in (?, ?)", Integer.class, userId, -1L));
+    }
+
+    private ResultActions award(long id, int points, String reason) throws Exception {
+        return mockMvc.perform(post("/users/{id}/loyalty-points", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AwardBody(points, reason))));
+    }
+
+    private record AwardBody(int points, String reason) {
+    }
+}
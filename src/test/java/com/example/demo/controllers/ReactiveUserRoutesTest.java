@@ -0,0 +1,105 @@
+package com.example.demo.controllers;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.ResultHandler;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Functional R2DBC read endpoints against the H2 test database
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Reactive user routes")
+class ReactiveUserRoutesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("GET /reactive/users/{id} returns the user")
+    void getUser_ShouldReturnDto() throws Exception {
+        perform(get("/reactive/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.email").value("john.doe@example.com"));
+    }
+
+    @Test
+    @DisplayName("GET /reactive/users/{id} returns 404 for an unknown user")
+    void getUser_WhenMissing_ShouldReturnNotFound() throws Exception {
+        perform(get("/reactive/users/999999")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /reactive/users streams one JSON object per line, ordered by id")
+    void streamUsers_AsNdjson_ShouldWriteOneLinePerUser() throws Exception {
+        String body = perform(get("/reactive/users").param("sort", "id").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(lines.length >= 5);
+        assertTrue(lines[0].startsWith("{\"id\":1,"), lines[0]);
+    }
+
+    @Test
+    @DisplayName("GET /reactive/users defaults to NDJSON and answers 406 to other formats")
+    void streamUsers_ByAccept_ShouldNegotiateFormat() throws Exception {
+        perform(get("/reactive/users"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+        perform(get("/reactive/users").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM));
+        mockMvc.perform(get("/reactive/users").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    /**
+     * Perform the request and, if the handler went async, wait for and dispatch its result
+     * A Mono that is already complete is answered without starting async processing.
+     */
+    private ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result.getAsyncResult();
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return new ResultActions() {
+            @Override
+            public ResultActions andExpect(ResultMatcher matcher) throws Exception {
+                matcher.match(result);
+                return this;
+            }
+
+            @Override
+            public ResultActions andDo(ResultHandler handler) throws Exception {
+                handler.handle(result);
+                return this;
+            }
+
+            @Override
+            public MvcResult andReturn() {
+                return result;
+            }
+        };
+    }
+}
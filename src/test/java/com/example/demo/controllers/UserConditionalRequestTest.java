@@ -0,0 +1,187 @@
+package com.example.demo.controllers;
+
+import com.example.demo.entities.User;
+import com.example.demo.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional request tests for the user REST endpoints
+ *
+ * ETags come from the users.version column: If-None-Match must be answered with
+ * 304 from a version lookup alone, and If-Match must refuse stale updates.
+ * Each test works on its own user, removed afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("User conditional requests")
+class UserConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        userId = userRepository.save(newUser("etag.test@example.com")).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    @DisplayName("GET /users/{id} answers 304 from the version alone")
+    void getUser_WithCurrentETag_ShouldReturnNotModifiedWithoutLoadingUser() throws Exception {
+        String etag = getETag("/users/" + userId);
+        Statistics statistics = resetStatistics();
+
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("GET /users/{id} returns the user again after an update")
+    void getUser_AfterUpdate_ShouldReturnNewETag() throws Exception {
+        String etag = getETag("/users/" + userId);
+
+        mockMvc.perform(put("/users/{id}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\",\"email\":\"etag.test@example.com\"}"))
+                .andExpect(status().isOk());
+
+        String newETag = mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Renamed"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newETag);
+    }
+
+    @Test
+    @DisplayName("Bulk status changes move the ETag")
+    void getUser_AfterBulkDeactivation_ShouldReturnNewETag() throws Exception {
+        String etag = getETag("/users/" + userId);
+
+        mockMvc.perform(put("/users/deactivate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + userId + "]}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/users/{id}", userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.active").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /users answers 304 until a user is added")
+    void getAllUsers_ShouldReturnNotModifiedUntilUsersChange() throws Exception {
+        String etag = getETag("/users");
+        Statistics statistics = resetStatistics();
+
+        mockMvc.perform(get("/users").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Long otherId = userRepository.save(newUser("etag.other@example.com")).getId();
+        try {
+            mockMvc.perform(get("/users").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isOk());
+        } finally {
+            userRepository.deleteById(otherId);
+        }
+    }
+
+    @Test
+    @DisplayName("PUT /users/{id} with a stale If-Match returns 412")
+    void updateUser_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        String etag = getETag("/users/" + userId);
+
+        mockMvc.perform(put("/users/{id}", userId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"First\",\"email\":\"etag.test@example.com\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(put("/users/{id}", userId)
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Second\",\"email\":\"etag.test@example.com\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("First", userRepository.findById(userId).orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Saving a stale copy of a user fails with an optimistic-locking error")
+    void save_StaleCopy_ShouldFail() {
+        User first = userRepository.findById(userId).orElseThrow();
+        User second = userRepository.findById(userId).orElseThrow();
+
+        first.setName("First");
+        userRepository.save(first);
+        second.setName("Second");
+
+        assertThrows(OptimisticLockingFailureException.class, () -> userRepository.save(second));
+    }
+
+    private String getETag(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private Statistics resetStatistics() {
+        // Count real statements, not second-level or query cache hits
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    private static User newUser(String email) {
+        return User.builder()
+                .name("ETag Test")
+                .email(email)
+                .password("{noop}secret")
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.demo.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /users/export against the shared test database
+ *
+ * Each test creates an inactive user whose name needs CSV quoting; row counts are
+ * compared with the database at the time of the export.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("User export")
+class UserExportTest {
+
+    private static final String NAME = "Export \"Quoted\", Test";
+    private static final String EMAIL = "export.test@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long userId;
+
+    @BeforeEach
+    void createInactiveUser() throws Exception {
+        String body = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new NewUser(NAME, EMAIL, "Exp0rt-Passw0rd"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        userId = objectMapper.readTree(body).get("id").asLong();
+        mockMvc.perform(put("/users/{id}/deactivate", userId)).andExpect(status().isOk());
+    }
+
+    @AfterEach
+    void deleteUser() throws Exception {
+        mockMvc.perform(delete("/users/{id}", userId)).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("CSV has a header, one line per user and address, inactive users included, and quotes fields")
+    void exportCsv_ShouldStreamEveryRow() throws Exception {
+        MvcResult result = export("csv", false);
+
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertEquals("user_id,name,email,active,address_id,street,city,state,zip", lines.get(0));
+        assertEquals(countRows(), lines.size() - 1);
+        // No addresses: the address columns are empty
+        assertTrue(lines.contains(userId + ",\"Export \"\"Quoted\"\", Test\"," + EMAIL + ",false,,,,,"),
+                "Quoted row of user " + userId);
+    }
+
+    @Test
+    @DisplayName("NDJSON has one object per user with its addresses nested")
+    void exportNdjson_ShouldStreamEveryUser() throws Exception {
+        MvcResult result = export("ndjson", false);
+
+        List<String> lines = result.getResponse().getContentAsString().lines().toList();
+        assertEquals(jdbcTemplate.queryForObject("select count(*) from users", Integer.class), lines.size());
+        JsonNode exported = null;
+        for (String line : lines) {
+            JsonNode user = objectMapper.readTree(line);
+            if (user.get("id").asLong() == userId) {
+                exported = user;
+            }
+        }
+        assertNotNull(exported, "User " + userId + " exported");
+        assertEquals(NAME, exported.get("name").asText());
+        assertFalse(exported.get("active").asBoolean());
+        assertEquals(0, exported.get("addresses").size());
+    }
+
+    @Test
+    @DisplayName("gzip=true compresses the same CSV, and unknown formats are rejected")
+    void exportGzip_ShouldCompress() throws Exception {
+        MvcResult result = export("csv", true);
+
+        byte[] compressed = result.getResponse().getContentAsByteArray();
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertEquals(countRows() + 1, csv.lines().count());
+
+        mockMvc.perform(get("/users/export").param("format", "xml")).andExpect(status().isBadRequest());
+    }
+
+    private MvcResult export(String format, boolean gzip) throws Exception {
+        MvcResult started = mockMvc.perform(get("/users/export")
+                        .param("format", format)
+                        .param("gzip", String.valueOf(gzip)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String fileName = "users." + format + (gzip ? ".gz" : "");
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"" + fileName + "\""))
+                .andExpect(content().contentTypeCompatibleWith(gzip ? "application/gzip"
+                        : format.equals("csv") ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE))
+                .andReturn();
+    }
+
+    // Rows of the users-addresses left join the export walks
+    private int countRows() {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from users u left join addresses a on a.user_id = u.id", Integer.class);
+    }
+
+    private record NewUser(String name, String email, String password) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo.controllers;
+
+import com.example.demo.config.SessionProperties;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.UserSessions;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query-count tests for the user read endpoints
+ *
+ * Each endpoint must run a fixed number of SQL statements regardless of how many
+ * users exist: no per-row profile or address selects (N+1).
+ * Statement counts come from Hibernate statistics against the H2 test database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("User endpoint query counts")
+class UserQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserSessions userSessions;
+
+    @Autowired
+    private SessionProperties sessionProperties;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        // Count real statements, not second-level or query cache hits
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("GET /users runs one query")
+    void getAllUsers_ShouldRunOneQuery() throws Exception {
+        mockMvc.perform(get("/users")).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("GET /users?limit= runs one query")
+    void getUsersPage_ShouldRunOneQuery() throws Exception {
+        mockMvc.perform(get("/users").param("limit", "2")).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("GET /users/{id} runs one query")
+    void getUser_ShouldRunOneQuery() throws Exception {
+        mockMvc.perform(get("/users/1")).andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("GET /ui/users runs the page query and the count query")
+    void listUsers_ShouldRunPageAndCountQueries() throws Exception {
+        mockMvc.perform(get("/ui/users").cookie(loginCookie()))
+                .andExpect(status().isOk());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("GET /ui/users/{id} runs one query")
+    void viewUser_ShouldRunOneQuery() throws Exception {
+        mockMvc.perform(get("/ui/users/1").cookie(loginCookie()))
+                .andExpect(status().isOk());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Loading a User entity does not select its profile")
+    void findById_ShouldNotSelectProfile() {
+        transactionTemplate.executeWithoutResult(tx -> assertTrue(userRepository.findById(1L).isPresent()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Cookie loginCookie() {
+        return new Cookie(sessionProperties.getCookieName(), userSessions.create(1L));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReplicaReadDataSource")
+class ReplicaReadDataSourceTest {
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private ReplicaLagMonitor monitor;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Connection primaryConnection;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReplicaReadDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaReadDataSource(replica, primary, monitor, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should hand out replica connections while the replica is usable")
+    void getConnection_WhenUsable_ShouldUseReplica() throws SQLException {
+        when(monitor.isUsable()).thenReturn(true);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(replicaConnection, dataSource.getConnection());
+
+        verifyNoInteractions(primary);
+        assertEquals(0, fallbacks());
+    }
+
+    @Test
+    @DisplayName("Should use the primary while the replica lags")
+    void getConnection_WhenLagging_ShouldUsePrimary() throws SQLException {
+        when(monitor.isUsable()).thenReturn(false);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        verifyNoInteractions(replica);
+        assertEquals(1, fallbacks());
+    }
+
+    @Test
+    @DisplayName("Should take a failing replica out of rotation and fall back to the primary")
+    void getConnection_WhenReplicaFails_ShouldFallBack() throws SQLException {
+        SQLException failure = new SQLException("Connection refused");
+        when(monitor.isUsable()).thenReturn(true);
+        when(replica.getConnection()).thenThrow(failure);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, dataSource.getConnection());
+
+        verify(monitor).replicaFailed(failure);
+        assertEquals(1, fallbacks());
+    }
+
+    private double fallbacks() {
+        return meterRegistry.get("datasource.replica.fallbacks").counter().count();
+    }
+}
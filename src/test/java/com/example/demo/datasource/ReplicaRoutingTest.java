@@ -0,0 +1,146 @@
+package com.example.demo.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary/replica routing against two in-memory H2 databases
+ *
+ * The regular test database is the primary; a second one, migrated with the same
+ * scripts, stands in for the replica. Nothing replicates between them, so a user
+ * created through the API exists on the primary only, which shows where each read
+ * went. Users are told apart by their email: the replica's sample rows may reuse ids. Tests copy the heartbeat across and run lag checks themselves; the scheduled
+ * check is pushed out of the way by a long interval.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.password=",
+        "app.datasource.replica.heartbeat-interval=1h"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Primary/replica routing")
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Autowired
+    void setDataSources(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                        @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+    }
+
+    @BeforeEach
+    void catchUp() {
+        // Write a heartbeat, "replicate" it, and let the monitor see the replica is current
+        monitor.check();
+        Long beat = primary.queryForObject("select beat_at from replication_heartbeat where id = 1", Long.class);
+        replica.update("update replication_heartbeat set beat_at = ? where id = 1", beat);
+        monitor.check();
+        assertTrue(monitor.isUsable());
+        assertEquals(0, monitor.getLagMillis());
+    }
+
+    @Test
+    @DisplayName("Writes go to the primary, read-only transactions to the replica")
+    void createThenGet_ShouldWritePrimaryAndReadReplica() throws Exception {
+        String email = "replica.routing@example.com";
+        long userId = createUser(email);
+        try {
+            assertEquals(1, count(primary, email));
+            assertEquals(0, count(replica, email));
+
+            // Not replicated yet, so the replica does not know the user (one of its own
+            // sample rows may have the same id)
+            assertNotEquals(email, readEmail(userId));
+        } finally {
+            mockMvc.perform(delete("/users/{id}", userId)).andExpect(status().isNoContent());
+        }
+    }
+
+    @Test
+    @DisplayName("A replica further behind than max-lag is bypassed until it catches up")
+    void laggingReplica_ShouldFallBackToPrimary() throws Exception {
+        String email = "replica.lag@example.com";
+        long userId = createUser(email);
+        try {
+            assertNotEquals(email, readEmail(userId));
+
+            // The replica still shows a heartbeat from long ago
+            replica.update("update replication_heartbeat set beat_at = 0 where id = 1");
+            monitor.check();
+            assertFalse(monitor.isUsable());
+
+            assertEquals(email, readEmail(userId));
+        } finally {
+            mockMvc.perform(delete("/users/{id}", userId)).andExpect(status().isNoContent());
+        }
+    }
+
+    private long createUser(String email) throws Exception {
+        String body = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Replica Test\",\"email\":\"" + email + "\",\"password\":\"Repl1ca-Passw0rd\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    /**
+     * Email of the user GET /users/{id} returns, or null if it answers 404
+     */
+    private String readEmail(long userId) throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/users/{id}", userId)).andReturn().getResponse();
+        if (response.getStatus() == HttpStatus.NOT_FOUND.value()) {
+            return null;
+        }
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        return objectMapper.readTree(response.getContentAsString()).get("email").asText();
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate, String email) {
+        return jdbcTemplate.queryForObject("select count(*) from users where email = ?", Integer.class, email);
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.demo.events;
+
+import com.example.demo.dtos.UserDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Delivery tests for the user_events outbox and the per-instance dispatcher
+ *
+ * The test database is shared with other test classes, whose events these dispatchers
+ * also deliver, so every assertion looks only at the user ids the test itself used.
+ * Ids of users that are never saved are negative.
+ */
+@SpringBootTest(properties = {
+        "app.users.events.dispatcher-enabled=true",
+        "app.users.events.poll-interval=100ms",
+        "app.users.events.retry-delay=100ms",
+        "app.users.events.max-attempts=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("User event delivery")
+class UserEventDispatcherTest {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    private static final AtomicLong fakeUserIds = new AtomicLong();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserEventPublisher userEventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecordingSubscriber subscriber;
+
+    @Autowired
+    private RecordingLocalSubscriber localSubscriber;
+
+    @Test
+    @DisplayName("Changes made through the API arrive once committed, in order")
+    void userChanges_ShouldBeDeliveredInOrder() throws Exception {
+        String body = mockMvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Event Test\",\"email\":\"events.test@example.com\",\"password\":\"Ev3nts-Passw0rd\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long userId = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(put("/users/{id}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Event Renamed\",\"email\":\"events.test@example.com\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/users/{id}/deactivate", userId)).andExpect(status().isOk());
+        mockMvc.perform(delete("/users/{id}", userId)).andExpect(status().isNoContent());
+
+        List<UserEvent> events = awaitEvents(userId, 4);
+        assertEquals(List.of(UserEventType.CREATED, UserEventType.UPDATED, UserEventType.DEACTIVATED, UserEventType.DELETED),
+                events.stream().map(UserEvent::type).toList());
+        assertEquals("Event Renamed", events.get(1).user().getName());
+        assertFalse(events.get(2).user().getActive());
+        assertTrue(events.get(0).id() < events.get(3).id());
+        assertEquals(events.stream().map(UserEvent::id).toList(),
+                awaitEvents(localSubscriber.recorder, userId, 4).stream().map(UserEvent::id).toList());
+    }
+
+    @Test
+    @DisplayName("Changes rolled back publish nothing")
+    void rolledBackChange_ShouldNotBeDelivered() {
+        long rolledBack = fakeUserIds.decrementAndGet();
+        long committed = fakeUserIds.decrementAndGet();
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            userEventPublisher.publish(UserEventType.CREATED, fakeUser(rolledBack));
+            tx.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(tx ->
+                userEventPublisher.publish(UserEventType.CREATED, fakeUser(committed)));
+
+        awaitEvents(committed, 1);
+        assertEquals(List.of(), subscriber.eventsOf(rolledBack));
+    }
+
+    @Test
+    @DisplayName("A batch a subscriber failed is delivered again")
+    void failedBatch_ShouldBeRedelivered() {
+        long userId = fakeUserIds.decrementAndGet();
+
+        subscriber.failOnce.set(userId);
+        transactionTemplate.executeWithoutResult(tx ->
+                userEventPublisher.publishStatusChange(List.of(userId), false));
+
+        List<UserEvent> events = awaitEvents(userId, 1);
+        assertEquals(0, subscriber.failOnce.get(), "The first delivery should have failed");
+        assertEquals(UserEventType.DEACTIVATED, events.get(0).type());
+        assertNull(events.get(0).user().getEmail(), "Bulk events carry the id only");
+    }
+
+    @Test
+    @DisplayName("An event a subscriber keeps failing is skipped, marked failed, and later events still arrive")
+    void poisonedEvent_ShouldBeSkippedAfterMaxAttempts() throws InterruptedException {
+        long poisoned = fakeUserIds.decrementAndGet();
+        long next = fakeUserIds.decrementAndGet();
+
+        subscriber.failAlways.set(poisoned);
+        transactionTemplate.executeWithoutResult(tx ->
+                userEventPublisher.publish(UserEventType.CREATED, fakeUser(poisoned)));
+        transactionTemplate.executeWithoutResult(tx ->
+                userEventPublisher.publish(UserEventType.CREATED, fakeUser(next)));
+
+        awaitEvents(next, 1);
+        assertEquals(List.of(), subscriber.eventsOf(poisoned));
+        // Stamped once the whole batch is done
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (publishedAt(next) == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertNotNull(publishedAt(next));
+        assertNotNull(jdbcTemplate.queryForObject(
+                "select failed_at from user_events where user_id = ?", Long.class, poisoned));
+        assertNull(jdbcTemplate.queryForObject(
+                "select failed_at from user_events where user_id = ?", Long.class, next));
+    }
+
+    @Test
+    @DisplayName("The per-instance dispatcher delivers an event that commits after a newer one")
+    void lateCommit_ShouldReachLocalSubscribers() throws Exception {
+        long late = fakeUserIds.decrementAndGet();
+        long early = fakeUserIds.decrementAndGet();
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+
+        Thread slowTransaction = new Thread(() -> transactionTemplate.executeWithoutResult(tx -> {
+            userEventPublisher.publish(UserEventType.CREATED, fakeUser(late));
+            inserted.countDown();
+            try {
+                commit.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        slowTransaction.start();
+        assertTrue(inserted.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        transactionTemplate.executeWithoutResult(tx ->
+                userEventPublisher.publish(UserEventType.CREATED, fakeUser(early)));
+
+        UserEvent earlyEvent = awaitEvents(localSubscriber.recorder, early, 1).get(0);
+        assertEquals(List.of(), localSubscriber.recorder.eventsOf(late));
+
+        commit.countDown();
+        slowTransaction.join(TIMEOUT_MILLIS);
+        UserEvent lateEvent = awaitEvents(localSubscriber.recorder, late, 1).get(0);
+        assertTrue(lateEvent.id() < earlyEvent.id(), "The late event took the older id");
+    }
+
+    @Test
+    @DisplayName("Publishing outside a transaction fails")
+    void publish_WithoutTransaction_ShouldFail() {
+        assertThrows(RuntimeException.class,
+                () -> userEventPublisher.publish(UserEventType.CREATED, fakeUser(fakeUserIds.decrementAndGet())));
+    }
+
+    private List<UserEvent> awaitEvents(long userId, int count) {
+        return awaitEvents(subscriber.recorder, userId, count);
+    }
+
+    private static List<UserEvent> awaitEvents(EventRecorder recorder, long userId, int count) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        List<UserEvent> events = recorder.eventsOf(userId);
+        while (events.size() < count && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            events = recorder.eventsOf(userId);
+        }
+        assertEquals(count, events.size(), "Events delivered for user " + userId);
+        return events;
+    }
+
+    private Long publishedAt(long userId) {
+        return jdbcTemplate.queryForObject("select published_at from user_events where user_id = ?", Long.class, userId);
+    }
+
+    private static UserDto fakeUser(long id) {
+        return new UserDto(id, "Fake " + id, "fake" + id + "@example.com", true);
+    }
+
+    @TestConfiguration
+    static class SubscriberConfig {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+
+        @Bean
+        RecordingLocalSubscriber recordingLocalSubscriber() {
+            return new RecordingLocalSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements UserEventSubscriber {
+        private final EventRecorder recorder = new EventRecorder();
+        // User id whose first delivery fails; 0 for none
+        private final AtomicLong failOnce = new AtomicLong();
+        // User id whose every delivery fails; 0 for none
+        private final AtomicLong failAlways = new AtomicLong();
+
+        @Override
+        public void onEvents(List<UserEvent> events) {
+            long failFor = failOnce.get();
+            if (failFor != 0 && !EventRecorder.eventsOf(events, failFor).isEmpty() && failOnce.compareAndSet(failFor, 0)) {
+                throw new IllegalStateException("Subscriber failure requested by the test");
+            }
+            long poisoned = failAlways.get();
+            if (poisoned != 0 && !EventRecorder.eventsOf(events, poisoned).isEmpty()) {
+                throw new IllegalStateException("Permanent subscriber failure requested by the test");
+            }
+            recorder.received.addAll(events);
+        }
+
+        List<UserEvent> eventsOf(long userId) {
+            return recorder.eventsOf(userId);
+        }
+    }
+
+    static class RecordingLocalSubscriber implements LocalUserEventSubscriber {
+        private final EventRecorder recorder = new EventRecorder();
+
+        @Override
+        public void onEvents(List<UserEvent> events) {
+            recorder.received.addAll(events);
+        }
+    }
+
+    static class EventRecorder {
+        private final List<UserEvent> received = new CopyOnWriteArrayList<>();
+
+        List<UserEvent> eventsOf(long userId) {
+            return eventsOf(received, userId);
+        }
+
+        private static List<UserEvent> eventsOf(List<UserEvent> events, long userId) {
+            return events.stream().filter(event -> event.user().getId() == userId).toList();
+        }
+    }
+}
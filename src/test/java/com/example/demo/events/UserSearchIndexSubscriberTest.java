@@ -0,0 +1,55 @@
+package com.example.demo.events;
+
+import com.example.demo.config.UserSearchProperties;
+import com.example.demo.dtos.UserDto;
+import com.example.demo.services.UserSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("UserSearchIndexSubscriber")
+class UserSearchIndexSubscriberTest {
+
+    private UserSearchIndex index;
+    private UserSearchIndexSubscriber subscriber;
+    private long nextEventId;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(new UserSearchProperties(), null);
+        subscriber = new UserSearchIndexSubscriber(index);
+    }
+
+    @Test
+    @DisplayName("A batch of changes leaves the index as the database after them")
+    void onEvents_ShouldApplyChangesInOrder() {
+        List<UserEvent> batch = List.of(
+                event(UserEventType.CREATED, new UserDto(1L, "John Doe", "john@example.com", true)),
+                event(UserEventType.CREATED, new UserDto(2L, "Jane Smith", "jane@example.com", true)),
+                event(UserEventType.CREATED, new UserDto(3L, "Bob Jones", "bob@example.com", true)),
+                // Bulk deactivation: ids only
+                event(UserEventType.DEACTIVATED, new UserDto(1L, null, null, false)),
+                event(UserEventType.DEACTIVATED, new UserDto(2L, null, null, false)),
+                event(UserEventType.ACTIVATED, new UserDto(2L, null, null, true)),
+                event(UserEventType.UPDATED, new UserDto(3L, "Robert Jones", "bob@example.com", true)),
+                event(UserEventType.PASSWORD_CHANGED, new UserDto(3L, "Robert Jones", "bob@example.com", true)),
+                event(UserEventType.DELETED, new UserDto(2L, "Jane Smith", "jane@example.com", true)));
+
+        subscriber.onEvents(batch);
+        // Delivered again after a failed attempt
+        subscriber.onEvents(batch);
+
+        assertEquals(2, index.size());
+        assertFalse(index.search("john", null).get(0).getActive());
+        assertEquals(List.of(), index.search("smith", null));
+        assertEquals("Robert Jones", index.search("robert", null).get(0).getName());
+    }
+
+    private UserEvent event(UserEventType type, UserDto user) {
+        return new UserEvent(++nextEventId, type, user, 0);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.loyalty;
+
+import com.example.demo.config.LoyaltyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoyaltyPointsAccumulator")
+class LoyaltyPointsAccumulatorTest {
+
+    @Mock
+    private LoyaltyLedger ledger;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<LoyaltyAward> written = new ArrayList<>();
+
+    private LoyaltyPointsAccumulator accumulator;
+
+    @BeforeEach
+    void setUp() {
+        LoyaltyProperties properties = new LoyaltyProperties();
+        properties.setBatchSize(2);
+        // flush() is called by the tests; the flusher thread is never started
+        accumulator = new LoyaltyPointsAccumulator(ledger, properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Concurrent awards to one user become one ledger row per reason")
+    void award_HotUser_ShouldCoalesce() throws InterruptedException {
+        recordWrites();
+        int threads = 8;
+        int awardsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            String reason = t % 2 == 0 ? "purchase" : "referral";
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < awardsPerThread; i++) {
+                    accumulator.award(42L, reason, 3);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(threads * awardsPerThread * 3L, accumulator.getPending(42L));
+        accumulator.flush();
+
+        assertEquals(2, written.size());
+        assertEquals(threads / 2 * awardsPerThread * 3L, points(42L, "purchase"));
+        assertEquals(threads / 2 * awardsPerThread * 3L, points(42L, "referral"));
+        assertEquals(0, accumulator.getPending(42L));
+    }
+
+    @Test
+    @DisplayName("A failed write puts the points back for the next flush")
+    void flush_WhenWriteFails_ShouldRetryNextFlush() {
+        doThrow(new QueryTimeoutException("Lock wait timeout")).when(ledger).apply(anyList());
+        accumulator.award(1L, "purchase", 10);
+        accumulator.award(2L, "purchase", 20);
+        accumulator.award(3L, "purchase", 30);
+
+        accumulator.flush();
+
+        // Batch size 2: after the first batch fails the second is not tried
+        verify(ledger, times(1)).apply(anyList());
+        assertEquals(10, accumulator.getPending(1L));
+        assertEquals(30, accumulator.getPending(3L));
+        assertEquals(1, meterRegistry.get("loyalty.flush.failures").counter().count());
+
+        reset(ledger);
+        recordWrites();
+        accumulator.award(1L, "purchase", 5);
+        accumulator.flush();
+
+        assertEquals(15, points(1L, "purchase"));
+        assertEquals(20, points(2L, "purchase"));
+        assertEquals(30, points(3L, "purchase"));
+    }
+
+    @Test
+    @DisplayName("Points of a user deleted meanwhile are dropped, the rest of the batch is written")
+    void flush_WhenUserDeleted_ShouldDropOnlyThatUser() {
+        doAnswer(invocation -> {
+            List<LoyaltyAward> awards = invocation.getArgument(0);
+            if (awards.stream().anyMatch(award -> award.userId() == 2L)) {
+                throw new DataIntegrityViolationException("foreign key loyalty_points_ledger_users_id_fk");
+            }
+            written.addAll(awards);
+            return null;
+        }).when(ledger).apply(anyList());
+        accumulator.award(1L, "purchase", 10);
+        accumulator.award(2L, "purchase", 20);
+
+        accumulator.flush();
+
+        assertEquals(10, points(1L, "purchase"));
+        assertEquals(0, points(2L, "purchase"));
+        assertEquals(0, accumulator.getPending(2L));
+        assertEquals(1, meterRegistry.get("loyalty.points.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("Awards racing with flushes are written exactly once")
+    void award_DuringFlushes_ShouldNotLoseOrRepeatPoints() throws InterruptedException {
+        recordWrites();
+        int threads = 4;
+        int awardsPerThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < awardsPerThread; i++) {
+                    accumulator.award(i % 20, i % 3 == 0 ? "purchase" : "referral", 1);
+                }
+            });
+        }
+        executor.shutdown();
+        while (!executor.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            accumulator.flush();
+        }
+        accumulator.flush();
+
+        assertEquals(threads * awardsPerThread, written.stream().mapToLong(LoyaltyAward::points).sum());
+        assertEquals(0.0, meterRegistry.get("loyalty.pending.users").gauge().value());
+    }
+
+    private void recordWrites() {
+        doAnswer(invocation -> {
+            written.addAll(invocation.getArgument(0));
+            return null;
+        }).when(ledger).apply(anyList());
+    }
+
+    private long points(long userId, String reason) {
+        return written.stream()
+                .filter(award -> award.userId() == userId && award.reason().equals(reason))
+                .mapToLong(LoyaltyAward::points)
+                .sum();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.security;
+
+import com.example.demo.config.SessionProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InMemorySessionStore
+ *
+ * Time is driven by a fake ticker so idle expiry is deterministic.
+ */
+@DisplayName("InMemorySessionStore Tests")
+class InMemorySessionStoreTest {
+
+    private AtomicLong nanos;
+    private InMemorySessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        SessionProperties properties = new SessionProperties();
+        properties.setTimeout(Duration.ofMinutes(30));
+        store = new InMemorySessionStore(properties, nanos::get);
+    }
+
+    @Test
+    @DisplayName("Should find a saved session by its token")
+    void find_AfterSave_ShouldReturnSession() {
+        store.save("token-1", new UserSession(1L, true));
+
+        assertEquals(new UserSession(1L, true), store.find("token-1").orElseThrow());
+        assertTrue(store.find("unknown").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should expire a session after the idle timeout, counting from the last access")
+    void find_AfterIdleTimeout_ShouldExpire() {
+        store.save("token-1", new UserSession(1L, true));
+
+        advanceMinutes(20);
+        assertTrue(store.find("token-1").isPresent());
+        advanceMinutes(20);
+        assertTrue(store.find("token-1").isPresent(), "The access 20 minutes ago restarted the timeout");
+        advanceMinutes(31);
+        assertTrue(store.find("token-1").isEmpty());
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.indexedUsers());
+    }
+
+    @Test
+    @DisplayName("Should deactivate every session of a user and no other")
+    void deactivateUsers_ShouldOnlyTouchThoseUsers() {
+        store.save("token-1", new UserSession(1L, true));
+        store.save("token-2", new UserSession(1L, true));
+        store.save("token-3", new UserSession(2L, true));
+
+        store.deactivateUsers(List.of(1L, 99L));
+
+        assertFalse(store.find("token-1").orElseThrow().active());
+        assertFalse(store.find("token-2").orElseThrow().active());
+        assertTrue(store.find("token-3").orElseThrow().active());
+    }
+
+    @Test
+    @DisplayName("Should drop a removed token from the user index")
+    void remove_ShouldUnindexToken() {
+        store.save("token-1", new UserSession(1L, true));
+        store.deactivateUsers(List.of(1L));
+        store.remove("token-1");
+
+        assertTrue(store.find("token-1").isEmpty());
+        assertEquals(0, store.indexedUsers());
+    }
+
+    private void advanceMinutes(long minutes) {
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(minutes));
+    }
+}
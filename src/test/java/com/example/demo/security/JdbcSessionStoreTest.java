@@ -0,0 +1,162 @@
+package com.example.demo.security;
+
+import com.example.demo.config.SessionProperties;
+import com.example.demo.entities.User;
+import com.example.demo.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JdbcSessionStore tests against the H2 test database
+ *
+ * Expiry and cleanup use a store built with a fake clock; deactivation goes through the
+ * Spring bean so its own transaction applies. Sessions belong to users the tests create,
+ * and go with them.
+ */
+@SpringBootTest(properties = "app.security.sessions.store=jdbc")
+@ActiveProfiles("test")
+@DisplayName("JdbcSessionStore Tests")
+class JdbcSessionStoreTest {
+
+    @Autowired
+    private SessionStore sessionStore;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private AtomicLong now;
+    private JdbcSessionStore store;
+    private Long userId;
+    private Long otherUserId;
+
+    @BeforeEach
+    void setUp() {
+        userId = createUser("sessions.one@example.com");
+        otherUserId = createUser("sessions.two@example.com");
+        now = new AtomicLong(System.currentTimeMillis());
+        SessionProperties properties = new SessionProperties();
+        properties.setTimeout(Duration.ofMinutes(30));
+        properties.setCleanupInterval(Duration.ofMinutes(60));
+        store = new JdbcSessionStore(jdbcTemplate, properties, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Cascades to their sessions
+        userRepository.deleteAllById(List.of(userId, otherUserId));
+    }
+
+    @Test
+    @DisplayName("Should find a saved session by its token and store only the token's hash")
+    void find_AfterSave_ShouldReturnSessionAndStoreHash() {
+        store.save("token-1", new UserSession(userId, true));
+
+        assertEquals(new UserSession(userId, true), store.find("token-1").orElseThrow());
+        assertTrue(store.find("unknown").isEmpty());
+        String stored = jdbcTemplate.queryForObject(
+                "select token_hash from user_sessions where user_id = ?", String.class, userId);
+        assertEquals(JdbcSessionStore.hash("token-1"), stored);
+        assertEquals(43, stored.length());
+        assertNotEquals("token-1", stored);
+    }
+
+    @Test
+    @DisplayName("Should push expiry forward only once less than half the timeout remains")
+    void find_ShouldSlideExpiryAtHalfTheTimeout() {
+        store.save("token-1", new UserSession(userId, true));
+        long expiresAt = expiresAt("token-1");
+
+        advanceMinutes(10);
+        assertTrue(store.find("token-1").isPresent());
+        assertEquals(expiresAt, expiresAt("token-1"), "20 minutes left: no write");
+
+        advanceMinutes(6);
+        assertTrue(store.find("token-1").isPresent());
+        assertEquals(now.get() + TimeUnit.MINUTES.toMillis(30), expiresAt("token-1"), "14 minutes left: pushed");
+
+        advanceMinutes(29);
+        assertTrue(store.find("token-1").isPresent());
+        advanceMinutes(31);
+        assertTrue(store.find("token-1").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should delete expired rows on login at most once per cleanup interval")
+    void save_ShouldCleanUpExpiredRowsOncePerInterval() {
+        // The first login runs the cleanup; the next is due 60 minutes later
+        store.save("token-1", new UserSession(userId, true));
+
+        advanceMinutes(31);
+        store.save("token-2", new UserSession(userId, true));
+        assertEquals(2, sessionRows(), "token-1 expired, but the cleanup is not due yet");
+        assertTrue(store.find("token-1").isEmpty());
+
+        advanceMinutes(30);
+        store.save("token-3", new UserSession(userId, true));
+        assertEquals(1, sessionRows(), "token-1 and token-2 expired and were removed");
+        assertTrue(store.find("token-3").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should deactivate sessions in batches and in a transaction of its own")
+    void deactivateUsers_ShouldCommitIndependently() {
+        sessionStore.save("token-1", new UserSession(userId, true));
+        sessionStore.save("token-2", new UserSession(otherUserId, true));
+        // More ids than one JDBC batch, the real one last
+        List<Long> userIds = new ArrayList<>();
+        for (long fake = -1; fake >= -1200; fake--) {
+            userIds.add(fake);
+        }
+        userIds.add(userId);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            sessionStore.deactivateUsers(userIds);
+            tx.setRollbackOnly();
+        });
+
+        assertFalse(sessionStore.find("token-1").orElseThrow().active(), "Kept despite the caller's rollback");
+        assertTrue(sessionStore.find("token-2").orElseThrow().active());
+    }
+
+    private Long createUser(String email) {
+        return userRepository.save(User.builder()
+                .name("Session Test")
+                .email(email)
+                .password("Session-Test-Passw0rd")
+                .build()).getId();
+    }
+
+    private long expiresAt(String token) {
+        return jdbcTemplate.queryForObject("select expires_at from user_sessions where token_hash = ?",
+                Long.class, JdbcSessionStore.hash(token));
+    }
+
+    private int sessionRows() {
+        return jdbcTemplate.queryForObject("select count(*) from user_sessions where user_id = ?", Integer.class, userId);
+    }
+
+    private void advanceMinutes(long minutes) {
+        now.addAndGet(TimeUnit.MINUTES.toMillis(minutes));
+    }
+}
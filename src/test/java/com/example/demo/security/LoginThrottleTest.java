@@ -0,0 +1,144 @@
+package com.example.demo.security;
+
+import com.example.demo.config.LoginThrottleProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LoginThrottle
+ *
+ * Time is driven by a fake clock so window boundaries are deterministic.
+ */
+@DisplayName("LoginThrottle Tests")
+class LoginThrottleTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+
+    private AtomicLong now;
+    private LoginThrottleProperties properties;
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        // Start at the beginning of a window
+        now = new AtomicLong(WINDOW_MILLIS * 1_000);
+        properties = new LoginThrottleProperties();
+        properties.setWindow(Duration.ofMillis(WINDOW_MILLIS));
+        properties.setMaxFailuresPerEmail(3);
+        properties.setMaxFailuresPerIp(5);
+        throttle = new LoginThrottle(properties, now::get);
+    }
+
+    @Test
+    @DisplayName("Should throttle an email after the maximum failures, ignoring case")
+    void isThrottled_AfterMaxFailures_ShouldRejectEmail() {
+        for (int i = 0; i < 3; i++) {
+            assertFalse(throttle.isThrottled("john@example.com", null));
+            throttle.recordFailure("John@Example.com", null);
+        }
+
+        assertTrue(throttle.isThrottled("john@example.com", null));
+        assertFalse(throttle.isThrottled("jane@example.com", null));
+        assertEquals(1, throttle.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("Should throttle an IP across different emails")
+    void isThrottled_AfterMaxFailuresFromIp_ShouldRejectAnyEmail() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertTrue(throttle.isThrottled("someone@example.com", "10.0.0.1"));
+        assertFalse(throttle.isThrottled("someone@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Should weigh previous-window failures by the remaining overlap")
+    void isThrottled_AcrossWindows_ShouldSlide() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("john@example.com", null);
+        }
+
+        // A quarter into the next window, 3 * 0.75 = 2.25 failures remain
+        now.addAndGet(WINDOW_MILLIS + WINDOW_MILLIS / 4);
+        assertFalse(throttle.isThrottled("john@example.com", null));
+
+        // One more failure brings the estimate to 3.25
+        throttle.recordFailure("john@example.com", null);
+        assertTrue(throttle.isThrottled("john@example.com", null));
+
+        // Two windows later everything has expired
+        now.addAndGet(2 * WINDOW_MILLIS);
+        assertFalse(throttle.isThrottled("john@example.com", null));
+    }
+
+    @Test
+    @DisplayName("Should forget email failures after a successful login")
+    void recordSuccess_ShouldResetEmail() {
+        for (int i = 0; i < 3; i++) {
+            throttle.recordFailure("john@example.com", null);
+        }
+
+        throttle.recordSuccess("john@example.com");
+
+        assertFalse(throttle.isThrottled("john@example.com", null));
+    }
+
+    @Test
+    @DisplayName("Should never throttle when disabled")
+    void isThrottled_WhenDisabled_ShouldAdmit() {
+        properties.setEnabled(false);
+        for (int i = 0; i < 10; i++) {
+            throttle.recordFailure("john@example.com", "10.0.0.1");
+        }
+
+        assertFalse(throttle.isThrottled("john@example.com", "10.0.0.1"));
+        assertEquals(0, throttle.getTrackedKeyCount());
+    }
+
+    @Test
+    @DisplayName("Should count every concurrent failure exactly once")
+    void recordFailure_FromManyThreads_ShouldNotLoseUpdates() throws Exception {
+        properties.setMaxFailuresPerIp(64 * 100);
+        int threads = 64;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        throttle.recordFailure("shared@example.com", "10.0.0.1");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Exactly 6400 failures in the current window: throttled at 6400, not at 6401
+        assertTrue(throttle.isThrottled("other@example.com", "10.0.0.1"));
+        properties.setMaxFailuresPerIp(64 * 100 + 1);
+        assertFalse(throttle.isThrottled("other@example.com", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.security;
+
+import com.example.demo.config.PasswordPolicyProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PasswordPolicy
+ */
+@DisplayName("PasswordPolicy Tests")
+class PasswordPolicyTest {
+
+    private PasswordPolicyProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PasswordPolicyProperties();
+        properties.setDeniedPasswords(List.of("Password123"));
+    }
+
+    @Test
+    @DisplayName("Should accept a password meeting every rule")
+    void validate_WithStrongPassword_ShouldReturnNoViolations() {
+        PasswordPolicy policy = new PasswordPolicy(properties);
+
+        assertEquals(List.of(), policy.validate("Tr0ub4dor&3", "OldPass123"));
+    }
+
+    @Test
+    @DisplayName("Should reject deny-listed passwords ignoring case")
+    void validate_WithDeniedPassword_ShouldReject() {
+        PasswordPolicy policy = new PasswordPolicy(properties);
+
+        assertEquals(List.of("Password is too common"), policy.validate("pASSWORD123", null));
+    }
+
+    @Test
+    @DisplayName("Should require a symbol and enforce the maximum length when configured")
+    void validate_WithSymbolRequiredAndTooLong_ShouldReportBoth() {
+        properties.setRequireSymbol(true);
+        properties.setMaxLength(10);
+        PasswordPolicy policy = new PasswordPolicy(properties);
+
+        assertEquals(List.of(
+                "Password must be at most 10 characters long",
+                "Password must contain at least one special character"), policy.validate("Abcdefgh1234", null));
+        assertEquals(List.of(), policy.validate("Abcdef1!", null));
+    }
+
+    @Test
+    @DisplayName("Should reject a new password too close to the current one")
+    void validate_WithSmallChange_ShouldRejectAsTooSimilar() {
+        PasswordPolicy policy = new PasswordPolicy(properties);
+
+        assertEquals(List.of("New password is too similar to current password"),
+                policy.validate("Summer2025", "summer2024"));
+        assertEquals(List.of(), policy.validate("Winter2025", "summer2024"));
+    }
+
+    @Test
+    @DisplayName("Bounded edit distance should agree with the full computation")
+    void isWithinDistance_ShouldMatchLevenshtein() {
+        String[][] pairs = {
+                {"kitten", "sitting"}, {"", "abc"}, {"abc", ""}, {"flaw", "lawn"},
+                {"OldPass123", "NewPass123"}, {"abcdef", "azcdxf"}, {"same", "SAME"}, {"ab", "ba"}
+        };
+        for (String[] pair : pairs) {
+            int distance = levenshtein(pair[0].toLowerCase(), pair[1].toLowerCase());
+            for (int bound = 0; bound <= 4; bound++) {
+                assertEquals(distance <= bound, PasswordPolicy.isWithinDistance(pair[0], pair[1], bound),
+                        pair[0] + " / " + pair[1] + " within " + bound);
+            }
+        }
+    }
+
+    private static int levenshtein(String a, String b) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
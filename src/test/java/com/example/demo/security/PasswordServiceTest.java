@@ -0,0 +1,70 @@
+package com.example.demo.security;
+
+import com.example.demo.config.PasswordHashingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for bulk hashing in PasswordService
+ *
+ * The pools are tiny on purpose: a queue of one would reject bulk work that did not
+ * wait for room.
+ */
+@DisplayName("PasswordService Tests")
+class PasswordServiceTest {
+
+    private PasswordService passwordService;
+
+    @AfterEach
+    void tearDown() {
+        passwordService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should hash every password in order without overflowing a small queue")
+    void hashAll_MoreThanPoolAndQueue_ShouldHashEveryPassword() {
+        passwordService = new PasswordService(properties(4, Duration.ofSeconds(5)));
+        List<String> raw = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            raw.add("Bulk-Passw0rd-" + i);
+        }
+
+        List<String> hashes = passwordService.hashAll(raw);
+
+        assertEquals(20, hashes.size());
+        for (int i = 0; i < raw.size(); i++) {
+            assertTrue(passwordService.matches(raw.get(i), hashes.get(i)), "Hash of password " + i);
+        }
+        assertEquals(0, passwordService.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("Should give up on passwords not hashed in time instead of failing the call")
+    void hashAll_WhenHashesTimeOut_ShouldReturnNulls() {
+        // Cost 12 takes far longer than the 1 ms timeout
+        passwordService = new PasswordService(properties(12, Duration.ofMillis(1)));
+
+        List<String> hashes = passwordService.hashAll(List.of("Slow-Passw0rd-1", "Slow-Passw0rd-2"));
+
+        assertEquals(2, hashes.size());
+        assertNull(hashes.get(0));
+        assertNull(hashes.get(1));
+        assertEquals(2, passwordService.getRejectedCount());
+    }
+
+    private static PasswordHashingProperties properties(int bcryptStrength, Duration timeout) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setBcryptStrength(bcryptStrength);
+        properties.setPoolSize(2);
+        properties.setQueueCapacity(1);
+        properties.setTimeout(timeout);
+        return properties;
+    }
+}
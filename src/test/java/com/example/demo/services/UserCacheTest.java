@@ -0,0 +1,104 @@
+package com.example.demo.services;
+
+import com.example.demo.entities.User;
+import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.PasswordService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Second-level and query cache tests
+ *
+ * Verifies reads are served from the cache, and that UserService mutations
+ * never leave a stale User behind in the entity or query cache. Each test works on
+ * a user of its own, so the shared sample rows are left untouched.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@DisplayName("User second-level cache")
+class UserCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final String PASSWORD = "Cache-Test-Passw0rd";
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.save(User.builder()
+                .name("Cache Test")
+                .email("cache.test@example.com")
+                .password(passwordService.hash(PASSWORD))
+                .build()).getId();
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    @DisplayName("Second findById is a cache hit")
+    void findById_Twice_ShouldHitSecondLevelCache() {
+        userRepository.findById(userId).orElseThrow();
+        userRepository.findById(userId).orElseThrow();
+
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Deactivate and activate evict stale entity and query cache entries")
+    void deactivateAndActivate_ShouldNotServeStaleUser() {
+        // Warm both caches
+        assertTrue(userRepository.findById(userId).orElseThrow().getActive());
+        assertTrue(userRepository.findDtoById(userId).orElseThrow().getActive());
+
+        userService.deactivateUser(userId);
+
+        assertFalse(userRepository.findById(userId).orElseThrow().getActive());
+        assertFalse(userRepository.findDtoById(userId).orElseThrow().getActive());
+
+        userService.activateUser(userId);
+
+        assertTrue(userRepository.findById(userId).orElseThrow().getActive());
+        assertTrue(userRepository.findDtoById(userId).orElseThrow().getActive());
+    }
+
+    @Test
+    @DisplayName("Change password is visible through the cache")
+    void changePassword_ShouldNotServeStalePassword() {
+        // Warm the entity cache
+        userRepository.findById(userId).orElseThrow();
+
+        userService.changePassword(userId, PASSWORD, "Brand-New-Secret-7q");
+
+        assertTrue(passwordService.matches("Brand-New-Secret-7q", userRepository.findById(userId).orElseThrow().getPassword()));
+    }
+}
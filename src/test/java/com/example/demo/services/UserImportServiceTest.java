@@ -0,0 +1,102 @@
+package com.example.demo.services;
+
+import com.example.demo.dtos.BulkImportResultDto;
+import com.example.demo.repositories.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk import tests against the H2 test database
+ */
+@SpringBootTest(properties = "app.users.bulk.chunk-size=2")
+@ActiveProfiles("test")
+@DisplayName("UserImportService Tests")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    @DisplayName("Should import valid JSON rows and report invalid ones")
+    void importJson_WithMixedRows_ShouldReportPerRowErrors() {
+        String json = """
+                [
+                  {"name": "Bulk One", "email": "bulk.one@example.com", "password": "secret1"},
+                  {"name": "Bulk Dup", "email": "john.doe@example.com", "password": "secret2"},
+                  {"name": "", "email": "bulk.blank@example.com", "password": "secret3"},
+                  {"name": "Bulk Two", "email": "bulk.two@example.com", "password": "secret4"},
+                  {"name": "Bulk Two Again", "email": "BULK.TWO@example.com", "password": "secret5"}
+                ]
+                """;
+
+        BulkImportResultDto result = userImportService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(5, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(2, 3, 5), result.getErrors().stream().map(BulkImportResultDto.RowError::getRow).toList());
+        assertTrue(userRepository.findByEmail("bulk.one@example.com").isPresent());
+        assertTrue(userRepository.findByEmail("bulk.two@example.com").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should reject array elements that are not objects and keep reading")
+    void importJson_WithNonObjectElements_ShouldReportThem() {
+        String json = """
+                [
+                  {"name": "Bulk Three", "email": "bulk.three@example.com", "password": "secret1"},
+                  42, "text", [{"name": "Nested"}], null,
+                  {"name": "Bulk Four", "email": "bulk.four@example.com", "password": "secret2"}
+                ]
+                """;
+
+        BulkImportResultDto result = userImportService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(6, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of(2, 3, 4, 5), result.getErrors().stream().map(BulkImportResultDto.RowError::getRow).toList());
+        assertTrue(userRepository.findByEmail("bulk.four@example.com").isPresent());
+    }
+
+    @Test
+    @DisplayName("Should import CSV with quoted fields")
+    void importCsv_WithQuotedFields_ShouldCreateUsers() {
+        String csv = """
+                email,name,password
+                csv.one@example.com,"Doe, Jane",pass1
+                csv.two@example.com,"Say \"\"Hi\"\"",pass2
+                """;
+
+        BulkImportResultDto result = userImportService.importCsv(new StringReader(csv));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(0, result.getFailed());
+        assertEquals("Doe, Jane", userRepository.findByEmail("csv.one@example.com").orElseThrow().getName());
+        assertEquals("Say \"Hi\"", userRepository.findByEmail("csv.two@example.com").orElseThrow().getName());
+    }
+
+    @Test
+    @DisplayName("Should reject a body that is not a JSON array")
+    void importJson_WithObjectBody_ShouldRejectInput() {
+        BulkImportResultDto result = userImportService.importJson(
+                new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(0, result.getCreated());
+        assertEquals(1, result.getFailed());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.demo.services;
+
+import com.example.demo.config.UserSearchProperties;
+import com.example.demo.dtos.UserDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for UserSearchIndex
+ *
+ * The index is filled through put, as UserSearchIndexSubscriber does; the startup rebuild is not used.
+ */
+@DisplayName("UserSearchIndex Tests")
+class UserSearchIndexTest {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(new UserSearchProperties(), null);
+        index.put(new UserDto(1L, "John Doe", "john.doe@example.com", true));
+        index.put(new UserDto(2L, "Jane Smith", "jane.smith@example.com", true));
+        index.put(new UserDto(3L, "Johnny Walker", "jw@drinks.org", true));
+        index.put(new UserDto(4L, "Bob Johnson", "bob@example.com", true));
+    }
+
+    @Test
+    @DisplayName("Should match every query word as a word prefix, in any order and any case")
+    void search_WithPrefixes_ShouldMatchWordPrefixes() {
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search("jo", null)));
+        assertEquals(List.of(1L), ids(index.search("DOE jo", null)));
+        assertEquals(List.of(3L), ids(index.search("walker j", null)));
+        assertEquals(List.of(), ids(index.search("ohn", null)), "Only word prefixes match");
+        assertEquals(List.of(), ids(index.search(" .,", null)));
+    }
+
+    @Test
+    @DisplayName("Should rank whole words over prefixes, and names over emails")
+    void search_ShouldRankWholeWordsThenNames() {
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search("john", null)));
+        assertEquals(List.of(3L), ids(index.search("drinks", null)));
+
+        index.put(new UserDto(5L, "Example Person", "person@other.org", true));
+        assertEquals(5L, index.search("example", null).get(0).getId(), "A name match beats email matches");
+    }
+
+    @Test
+    @DisplayName("Should tolerate one typo or swapped pair of letters in words of four letters or more")
+    void search_WithTypo_ShouldFallBackToFuzzyMatches() {
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search("jhon", null)));
+        assertEquals(List.of(2L), ids(index.search("smtih", null)));
+        assertEquals(List.of(2L), ids(index.search("smth", null)));
+        assertEquals(List.of(), ids(index.search("jhn", null)), "Short words must match exactly");
+    }
+
+    @Test
+    @DisplayName("Should return at most the requested number of results, capped by the configured maximum")
+    void search_WithLimit_ShouldReturnTopResults() {
+        assertEquals(List.of(1L, 2L), ids(index.search("j", 2)));
+        assertEquals(List.of(), index.search("j", 0));
+
+        UserSearchProperties properties = new UserSearchProperties();
+        properties.setMaxLimit(1);
+        UserSearchIndex capped = new UserSearchIndex(properties, null);
+        capped.put(new UserDto(1L, "John Doe", "john.doe@example.com", true));
+        capped.put(new UserDto(3L, "Johnny Walker", "jw@drinks.org", true));
+        assertEquals(1, capped.search("j", 50).size());
+    }
+
+    @Test
+    @DisplayName("Should follow renames, deletions and status changes")
+    void putRemoveSetActive_ShouldUpdateResults() {
+        index.put(new UserDto(1L, "Jack Doe", "jack.doe@example.com", true));
+        assertEquals(List.of(3L, 4L), ids(index.search("john", null)));
+        assertEquals(List.of(1L), ids(index.search("jack", null)));
+
+        index.remove(3L);
+        assertEquals(List.of(4L), ids(index.search("john", null)));
+
+        index.setActive(List.of(4L, 99L), false);
+        assertFalse(index.search("bob", null).get(0).getActive());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    @DisplayName("Should keep results correct across compaction of removed users")
+    void remove_ManyUsers_ShouldCompact() {
+        for (long id = 100; id < 3100; id++) {
+            index.put(new UserDto(id, "Temp " + id, "temp" + id + "@example.com", true));
+        }
+        for (long id = 100; id < 3100; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(), index.search("temp", null));
+        assertEquals(List.of(1L, 3L, 4L), ids(index.search("jo", null)));
+    }
+
+    @Test
+    @DisplayName("Should accept one edit against a prefix of the word")
+    void isOneEditFromPrefix_ShouldAllowOneEdit() {
+        assertTrue(UserSearchIndex.isOneEditFromPrefix("johnson", 0, "jonh"));
+        assertTrue(UserSearchIndex.isOneEditFromPrefix("johnson", 0, "jxhn"));
+        assertTrue(UserSearchIndex.isOneEditFromPrefix("johnson", 0, "jhn"));
+        assertTrue(UserSearchIndex.isOneEditFromPrefix("bob johnson", 4, "jhonson"));
+        assertFalse(UserSearchIndex.isOneEditFromPrefix("johnson", 0, "jhonsno"));
+        assertFalse(UserSearchIndex.isOneEditFromPrefix("johnson", 0, "xxhn"));
+    }
+
+    @Test
+    @DisplayName("Should split queries into distinct lower-case words")
+    void words_ShouldSplitOnNonAlphanumerics() {
+        assertEquals(List.of("john", "doe", "example"), UserSearchIndex.words(" John.DOE@example john "));
+        assertEquals(List.of(), UserSearchIndex.words(null));
+    }
+
+    private static List<Long> ids(List<UserDto> users) {
+        return users.stream().map(UserDto::getId).toList();
+    }
+}
@@ -1,10 +1,22 @@
 package com.example.demo.services;
 
+import com.example.demo.audit.AuditAction;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.config.PasswordHashingProperties;
+import com.example.demo.config.PasswordPolicyProperties;
+import com.example.demo.dtos.BulkStatusChangeResultDto;
 import com.example.demo.dtos.UserDto;
 import com.example.demo.entities.User;
+import com.example.demo.events.UserEventPublisher;
+import com.example.demo.events.UserEventType;
 import com.example.demo.exceptions.*;
 import com.example.demo.mappers.UserMapper;
 import com.example.demo.repositories.UserRepository;
+import com.example.demo.security.LoginThrottle;
+import com.example.demo.security.PasswordPolicy;
+import com.example.demo.security.PasswordService;
+import com.example.demo.security.SessionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,8 +24,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,12 +56,45 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserEmailCache userEmailCache;
+
+    @Mock
+    private LoginThrottle loginThrottle;
+
+    @Mock
+    private SessionStore sessionStore;
+
+    @Mock
+    private UserEventPublisher userEventPublisher;
+
+    @Mock
+    private AuditLog auditLog;
+
+    // Real hashing (low bcrypt cost) so stored plaintext test passwords behave like legacy rows
+    @Spy
+    private PasswordService passwordService = new PasswordService(testHashingProperties());
+
+    @Spy
+    private PasswordPolicy passwordPolicy = new PasswordPolicy(new PasswordPolicyProperties());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UserMetrics userMetrics = new UserMetrics(meterRegistry);
+
     @InjectMocks
     private UserService userService;
 
     private User testUser;
     private UserDto testUserDto;
 
+    private static PasswordHashingProperties testHashingProperties() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setBcryptStrength(4);
+        return properties;
+    }
+
     /**
      * This method runs before EACH test
      * It sets up fresh test data to ensure test isolation
@@ -97,6 +146,69 @@ class UserServiceTest {
             verify(userRepository, times(1)).findByEmail("john@example.com");
             // Verify that the mapper was called exactly once
             verify(userMapper, times(1)).toDto(testUser);
+            verify(auditLog, times(1)).record(AuditAction.LOGIN_SUCCEEDED, 1L, "john@example.com", null, null);
+        }
+
+        @Test
+        @DisplayName("Should reject a throttled login without querying the database")
+        void login_WhenThrottled_ShouldThrowBeforeRepositoryAccess() {
+            // ARRANGE
+            when(loginThrottle.isThrottled("john@example.com", "10.0.0.1")).thenReturn(true);
+
+            // ACT & ASSERT
+            assertThrows(LoginThrottledException.class,
+                    () -> userService.login("john@example.com", "OldPass123", "10.0.0.1"));
+            verifyNoInteractions(userRepository);
+            verify(auditLog, times(1)).record(AuditAction.LOGIN_THROTTLED, null, "john@example.com", "10.0.0.1", null);
+        }
+
+        @Test
+        @DisplayName("Should record a failure for a wrong password")
+        void login_WithWrongPassword_ShouldRecordFailure() {
+            // ARRANGE
+            when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+
+            // ACT
+            assertThrows(InvalidCredentialsException.class,
+                    () -> userService.login("john@example.com", "WrongPassword", "10.0.0.1"));
+
+            // ASSERT
+            verify(loginThrottle, times(1)).recordFailure("john@example.com", "10.0.0.1");
+            assertEquals(1.0, meterRegistry.get("users.logins").tag("outcome", "bad_password").counter().count());
+            assertEquals(0.0, meterRegistry.get("users.logins").tag("outcome", "success").counter().count());
+            verify(auditLog, times(1)).record(AuditAction.LOGIN_FAILED, 1L, "john@example.com", "10.0.0.1", "bad_password");
+        }
+
+        @Test
+        @DisplayName("Should rehash a legacy plaintext password on successful login")
+        void login_WithLegacyPlaintextPassword_ShouldUpgradeHash() {
+            // ARRANGE: testUser stores "OldPass123" in plaintext
+            when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(testUser));
+            when(userMapper.toDto(testUser)).thenReturn(testUserDto);
+
+            // ACT
+            userService.login("john@example.com", "OldPass123");
+
+            // ASSERT
+            assertTrue(testUser.getPassword().startsWith("{bcrypt}"));
+            assertTrue(passwordService.matches("OldPass123", testUser.getPassword()));
+            verify(userRepository, times(1)).save(testUser);
+        }
+
+        @Test
+        @DisplayName("Should resolve a cached email by id without querying by email")
+        void login_WithCachedEmail_ShouldLookUpById() {
+            // ARRANGE: Email is cached, mixed case on input
+            when(userEmailCache.get("john@example.com")).thenReturn(1L);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(userMapper.toDto(testUser)).thenReturn(testUserDto);
+
+            // ACT
+            UserDto result = userService.login(" John@Example.com ", "OldPass123");
+
+            // ASSERT
+            assertEquals(1L, result.getId());
+            verify(userRepository, never()).findByEmail(any());
         }
 
         @Test
@@ -180,10 +292,13 @@ class UserServiceTest {
 
             // ASSERT
             assertNotNull(result);
-            assertEquals(newPassword, testUser.getPassword(), "Password should be updated");
+            assertTrue(testUser.getPassword().startsWith("{bcrypt}"), "Password should be stored hashed");
+            assertTrue(passwordService.matches(newPassword, testUser.getPassword()), "Password should be updated");
             verify(userRepository, times(1)).findById(1L);
             verify(userRepository, times(1)).save(testUser);
             verify(userMapper, times(1)).toDto(testUser);
+            verify(userEventPublisher, times(1)).publish(UserEventType.PASSWORD_CHANGED, testUserDto);
+            verify(auditLog, times(1)).record(AuditAction.PASSWORD_CHANGED, 1L, null, null, null);
         }
 
         @Test
@@ -218,6 +333,7 @@ class UserServiceTest {
             assertEquals("Current password is incorrect", exception.getMessage());
             verify(userRepository, times(1)).findById(1L);
             verify(userRepository, never()).save(any());
+            verify(auditLog, times(1)).record(AuditAction.PASSWORD_CHANGE_FAILED, 1L, null, null, "bad_current_password");
         }
 
         @Test
@@ -297,6 +413,25 @@ class UserServiceTest {
             assertEquals("Password must contain at least one digit", exception.getMessage());
         }
 
+        @Test
+        @DisplayName("Should report every violated rule at once")
+        void changePassword_WithSeveralViolations_ShouldReportAll() {
+            // ARRANGE
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+            // ACT & ASSERT
+            WeakPasswordException exception = assertThrows(
+                    WeakPasswordException.class,
+                    () -> userService.changePassword(1L, "OldPass123", "short")
+            );
+
+            assertEquals(List.of(
+                    "Password must be at least 8 characters long",
+                    "Password must contain at least one uppercase letter",
+                    "Password must contain at least one digit"), exception.getViolations());
+            verify(userRepository, never()).save(any());
+        }
+
         @Test
         @DisplayName("Should throw WeakPasswordException when password is null")
         void changePassword_WithNullPassword_ShouldThrowWeakPasswordException() {
@@ -401,6 +536,31 @@ class UserServiceTest {
             verify(userRepository, times(1)).findById(1L);
             verify(userRepository, times(1)).save(testUser);
             verify(userMapper, times(1)).toDto(testUser);
+            verify(sessionStore, times(1)).deactivateUsers(List.of(1L));
+            verify(userEventPublisher, times(1)).publish(UserEventType.DEACTIVATED, testUserDto);
+        }
+
+        @Test
+        @DisplayName("Should end sessions and audit only once the transaction commits")
+        void deactivateUser_InTransaction_ShouldWaitForCommit() {
+            testUser.setActive(true);
+            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(userRepository.save(any(User.class))).thenReturn(testUser);
+            when(userMapper.toDto(testUser)).thenReturn(testUserDto);
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                userService.deactivateUser(1L);
+
+                verifyNoInteractions(sessionStore, auditLog);
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(sessionStore, times(1)).deactivateUsers(List.of(1L));
+            verify(auditLog, times(1)).record(AuditAction.USER_DEACTIVATED, 1L, null, null, null);
         }
 
         @Test
@@ -436,7 +596,68 @@ class UserServiceTest {
             assertEquals("User is already inactive", exception.getMessage());
             verify(userRepository, times(1)).findById(1L);
             verify(userRepository, never()).save(any());
+            verify(sessionStore, never()).deactivateUsers(any());
+            verifyNoInteractions(userEventPublisher);
         }
     }
-}
 
+    /**
+     * NESTED CLASS: Bulk Status Change Tests
+     */
+    @Nested
+    @DisplayName("Bulk Status Change Tests")
+    class BulkStatusChangeTests {
+
+        @Test
+        @DisplayName("Should update with one statement and report unchanged and unknown ids")
+        void setActive_WithMixedIds_ShouldReportAlreadyInStateAndNotFound() {
+            // ARRANGE: 1 and 2 exist, 2 is already inactive, 99 doesn't exist
+            List<Long> ids = List.of(1L, 2L, 99L);
+            when(userRepository.findExistingIds(ids)).thenReturn(List.of(1L, 2L));
+            when(userRepository.findIdsInState(ids, false)).thenReturn(List.of(2L));
+            when(userRepository.updateActiveByIds(ids, false)).thenReturn(1);
+
+            // ACT
+            BulkStatusChangeResultDto result = userService.setActive(ids, false);
+
+            // ASSERT
+            assertEquals(1, result.getUpdated());
+            assertEquals(List.of(2L), result.getAlreadyInStateIds());
+            assertEquals(List.of(99L), result.getNotFoundIds());
+            verify(userRepository, times(1)).updateActiveByIds(ids, false);
+            verify(userRepository, never()).findById(any());
+            verify(userRepository, never()).save(any());
+            verify(sessionStore, times(1)).deactivateUsers(ids);
+            verify(userEventPublisher, times(1)).publishStatusChange(List.of(1L), false);
+            verify(auditLog, times(1)).record(AuditAction.USERS_DEACTIVATED, null, null, null, "ids: 3, updated: 1");
+        }
+
+        @Test
+        @DisplayName("Should escape LIKE wildcards in the email domain")
+        void setActiveByEmailDomain_ShouldEscapeWildcards() {
+            // ARRANGE
+            when(userRepository.updateActiveByEmailLike("%@ex_mple.com".replace("_", "!_"), true)).thenReturn(3);
+
+            // ACT
+            BulkStatusChangeResultDto result = userService.setActiveByEmailDomain("ex_mple.com", true);
+
+            // ASSERT
+            assertEquals(3, result.getUpdated());
+            verify(userRepository, times(1)).countByEmailLikeInState("%@ex!_mple.com", true);
+        }
+
+        @Test
+        @DisplayName("Should end the sessions and update the search index of users deactivated by email domain")
+        void setActiveByEmailDomain_Deactivating_ShouldDeactivateSessionsAndIndex() {
+            // ARRANGE: users 1 and 2 are active in the domain
+            when(userRepository.findIdsByEmailLikeInState("%@example.com", true)).thenReturn(List.of(1L, 2L));
+            when(userRepository.updateActiveByEmailLike("%@example.com", false)).thenReturn(2);
+
+            // ACT
+            userService.setActiveByEmailDomain("example.com", false);
+
+            // ASSERT
+            verify(sessionStore, times(1)).deactivateUsers(List.of(1L, 2L));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.web;
+
+import com.example.demo.config.VirtualThreadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestConcurrencyLimitFilter
+ */
+@DisplayName("RequestConcurrencyLimitFilter Tests")
+class RequestConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private RequestConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        VirtualThreadProperties properties = new VirtualThreadProperties();
+        properties.setMaxConcurrentRequests(1);
+        properties.setAcquireTimeout(Duration.ZERO);
+        registry = new SimpleMeterRegistry();
+        filter = new RequestConcurrencyLimitFilter(properties, registry);
+    }
+
+    @Test
+    @DisplayName("Should reject a request with 503 while the limit is reached")
+    void doFilter_OverLimit_ShouldReturnServiceUnavailable() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        // The second request arrives while the first still holds the only permit
+        MockHttpServletResponse outer = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/1"), outer, (request, response) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/users/2"), inner, new MockFilterChain()));
+
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, inner.getStatus());
+        assertEquals("1", inner.getHeader("Retry-After"));
+        assertEquals(1.0, registry.get("http.server.requests.rejected").counter().count());
+        assertEquals(0, filter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should hold the permit of an async request until it completes")
+    void doFilter_AsyncRequest_ShouldReleaseOnComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertEquals(1, filter.getInFlight());
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/1"), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+
+        request.getAsyncContext().complete();
+        assertEquals(0, filter.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should not limit actuator endpoints")
+    void doFilter_Actuator_ShouldBypassLimit() throws Exception {
+        MockHttpServletResponse inner = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/users/1"), new MockHttpServletResponse(), (request, response) ->
+                filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), inner, new MockFilterChain()));
+
+        assertEquals(200, inner.getStatus());
+    }
+}